@@ -0,0 +1,135 @@
+package dev.coffer.minecraft.benchmarks.inventory;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import dev.coffer.minecraft.bindings.inventory.MinecraftItemDescriptor;
+import dev.coffer.minecraft.bindings.inventory.MinecraftPlayerInventoryContainer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.StringNbtReader;
+import net.minecraft.registry.Registries;
+import org.coffer.firstparty.authority.transferablevalue.port.TransferableValueDescriptor;
+import org.coffer.firstparty.authority.transferablevalue.port.TransferableValueSet;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class InventoryFixture {
+    static final int SLOT_COUNT = 36;
+    static final int STACK_COUNT = 32;
+
+    private static final UUID FIRST_PLAYER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND_PLAYER_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @Param({"0", "50", "100"})
+    public int fillPercent;
+
+    @Param({"1", "4", "16"})
+    public int distinctDescriptors;
+
+    @Param({"0", "4", "32"})
+    public int nbtEntries;
+
+    @Param({"true", "false"})
+    public boolean matching;
+
+    List<ItemStack> firstSlots;
+    List<ItemStack> secondSlots;
+    MinecraftPlayerInventoryContainer first;
+    MinecraftPlayerInventoryContainer second;
+    List<MinecraftItemDescriptor> descriptors;
+    TransferableValueSet values;
+    TransferableValueSet otherValues;
+
+    @Setup
+    public void setUp() throws CommandSyntaxException {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        List<Item> palette = palette(distinctDescriptors * 3);
+        Optional<String> descriptorNbt = nbtPayload(nbtEntries, false);
+        Optional<String> stackNbt = nbtPayload(nbtEntries, !matching);
+
+        descriptors = descriptors(palette, 0, descriptorNbt);
+        values = new TransferableValueSet(List.<TransferableValueDescriptor>copyOf(descriptors));
+        otherValues = new TransferableValueSet(
+                List.<TransferableValueDescriptor>copyOf(descriptors(palette, distinctDescriptors, descriptorNbt)));
+
+        firstSlots = slots(palette, 0, stackNbt);
+        secondSlots = slots(palette, distinctDescriptors, stackNbt);
+        first = new MinecraftPlayerInventoryContainer(
+                FIRST_PLAYER_ID,
+                MinecraftPlayerInventoryContainer.Region.MAIN,
+                firstSlots);
+        second = new MinecraftPlayerInventoryContainer(
+                SECOND_PLAYER_ID,
+                MinecraftPlayerInventoryContainer.Region.MAIN,
+                secondSlots);
+    }
+
+    private List<MinecraftItemDescriptor> descriptors(List<Item> palette, int offset, Optional<String> nbt) {
+        List<MinecraftItemDescriptor> descriptors = new ArrayList<>(distinctDescriptors);
+        for (int index = 0; index < distinctDescriptors; index++) {
+            descriptors.add(new MinecraftItemDescriptor(
+                    Registries.ITEM.getId(palette.get(offset + index)).toString(),
+                    1,
+                    nbt));
+        }
+        return descriptors;
+    }
+
+    private List<ItemStack> slots(List<Item> palette, int offset, Optional<String> stackNbt)
+            throws CommandSyntaxException {
+        int filledSlots = SLOT_COUNT * fillPercent / 100;
+        int itemOffset = matching || nbtEntries > 0 ? offset : distinctDescriptors * 2;
+        List<ItemStack> slots = new ArrayList<>(SLOT_COUNT);
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (slot >= filledSlots) {
+                slots.add(ItemStack.EMPTY);
+                continue;
+            }
+            ItemStack stack = new ItemStack(palette.get(itemOffset + slot % distinctDescriptors), STACK_COUNT);
+            if (stackNbt.isPresent()) {
+                stack.setNbt(StringNbtReader.parse(stackNbt.get()));
+            }
+            slots.add(stack);
+        }
+        return slots;
+    }
+
+    private static List<Item> palette(int size) {
+        List<Item> palette = new ArrayList<>(size);
+        for (Item item : Registries.ITEM) {
+            if (item != Items.AIR && item.getMaxCount() == 64) {
+                palette.add(item);
+            }
+            if (palette.size() == size) {
+                break;
+            }
+        }
+        return palette;
+    }
+
+    private static Optional<String> nbtPayload(int entries, boolean mismatched) {
+        if (entries == 0) {
+            return Optional.empty();
+        }
+        StringBuilder payload = new StringBuilder("{");
+        for (int entry = 0; entry < entries; entry++) {
+            if (entry > 0) {
+                payload.append(',');
+            }
+            int value = mismatched && entry == entries - 1 ? -entry - 1 : entry;
+            payload.append("entry").append(entry).append(':').append(value);
+        }
+        return Optional.of(payload.append('}').toString());
+    }
+}
@@ -0,0 +1,37 @@
+package dev.coffer.minecraft.benchmarks.inventory;
+
+import dev.coffer.minecraft.bindings.inventory.MinecraftItemDescriptor;
+import dev.coffer.minecraft.bindings.inventory.MinecraftItemMatcher;
+import java.util.concurrent.TimeUnit;
+import net.minecraft.item.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MinecraftItemMatcherBenchmark {
+    @Benchmark
+    public int matchesAcrossInventory(InventoryFixture fixture) {
+        int matches = 0;
+        for (ItemStack stack : fixture.firstSlots) {
+            for (MinecraftItemDescriptor descriptor : fixture.descriptors) {
+                if (MinecraftItemMatcher.matches(stack, descriptor)) {
+                    matches++;
+                }
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public long scanAcrossInventory(InventoryFixture fixture) {
+        MinecraftItemMatcher.Scan scan = MinecraftItemMatcher.compile(fixture.descriptors).scan(fixture.firstSlots);
+        long matches = 0;
+        for (int descriptor = 0; descriptor < fixture.descriptors.size(); descriptor++) {
+            matches += scan.matchingQuantity(descriptor);
+        }
+        return matches;
+    }
+}
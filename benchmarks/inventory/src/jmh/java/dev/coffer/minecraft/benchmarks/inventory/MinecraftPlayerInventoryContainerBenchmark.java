@@ -0,0 +1,41 @@
+package dev.coffer.minecraft.benchmarks.inventory;
+
+import java.util.concurrent.TimeUnit;
+import org.coffer.firstparty.authority.transferablevalue.port.MutationApplicationResult;
+import org.coffer.firstparty.authority.transferablevalue.port.ReceivabilityResult;
+import org.coffer.firstparty.authority.transferablevalue.port.RemovabilityResult;
+import org.coffer.firstparty.authority.transferablevalue.port.SimulationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MinecraftPlayerInventoryContainerBenchmark {
+    @Benchmark
+    public RemovabilityResult canRemove(InventoryFixture fixture) {
+        return fixture.first.canRemove(fixture.values);
+    }
+
+    @Benchmark
+    public ReceivabilityResult canReceive(InventoryFixture fixture) {
+        return fixture.first.canReceive(fixture.values);
+    }
+
+    @Benchmark
+    public SimulationResult simulateAtomicSwap(InventoryFixture fixture) {
+        return fixture.first.simulateAtomicSwap(fixture.second, fixture.values, fixture.otherValues);
+    }
+
+    @Benchmark
+    public void applyAtomicSwapRoundTrip(InventoryFixture fixture, Blackhole blackhole) {
+        MutationApplicationResult forward =
+                fixture.first.applyAtomicSwap(fixture.second, fixture.values, fixture.otherValues);
+        MutationApplicationResult reverse =
+                fixture.second.applyAtomicSwap(fixture.first, fixture.values, fixture.otherValues);
+        blackhole.consume(forward);
+        blackhole.consume(reverse);
+    }
+}
@@ -0,0 +1,25 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import java.util.Objects;
+import java.util.Optional;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+record MinecraftCompiledItem(
+        Item item,
+        int rawId,
+        boolean canonicalId,
+        Optional<MinecraftNbtPredicate> nbtPredicate,
+        long nbtHash,
+        int maxCount,
+        ItemStack prototype) {
+    MinecraftCompiledItem {
+        Objects.requireNonNull(item, "item");
+        Objects.requireNonNull(nbtPredicate, "nbtPredicate");
+        Objects.requireNonNull(prototype, "prototype");
+    }
+
+    ItemStack newStack() {
+        return prototype.copy();
+    }
+}
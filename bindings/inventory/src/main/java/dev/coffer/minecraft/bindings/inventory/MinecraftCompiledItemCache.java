@@ -0,0 +1,125 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+
+public final class MinecraftCompiledItemCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final MinecraftCompiledItemCache SHARED = new MinecraftCompiledItemCache(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    private final Map<ItemKey, Optional<MinecraftCompiledItem>> entries;
+    private volatile long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public MinecraftCompiledItemCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public static MinecraftCompiledItemCache shared() {
+        return SHARED;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public void invalidate() {
+        synchronized (entries) {
+            entries.clear();
+            generation++;
+        }
+    }
+
+    public Statistics statistics() {
+        synchronized (entries) {
+            return new Statistics(hits, misses, evictions, entries.size(), generation);
+        }
+    }
+
+    Optional<MinecraftCompiledItem> compile(String itemId, Optional<String> nbtPayload) {
+        ItemKey key = new ItemKey(Objects.requireNonNull(itemId, "itemId"), Objects.requireNonNull(nbtPayload, "nbtPayload"));
+        long compileGeneration;
+        synchronized (entries) {
+            Optional<MinecraftCompiledItem> cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            compileGeneration = generation;
+        }
+
+        Optional<MinecraftCompiledItem> compiled = resolve(itemId, nbtPayload);
+
+        synchronized (entries) {
+            if (compileGeneration != generation) {
+                return compiled;
+            }
+            Optional<MinecraftCompiledItem> raced = entries.putIfAbsent(key, compiled);
+            if (raced != null) {
+                return raced;
+            }
+            if (entries.size() > capacity) {
+                ItemKey eldest = entries.keySet().iterator().next();
+                entries.remove(eldest);
+                evictions++;
+            }
+            return compiled;
+        }
+    }
+
+    private static Optional<MinecraftCompiledItem> resolve(String itemId, Optional<String> nbtPayload) {
+        Identifier id = Identifier.tryParse(itemId);
+        if (id == null || !Registries.ITEM.containsId(id)) {
+            return Optional.empty();
+        }
+        Item item = Registries.ITEM.get(id);
+        if (item == Items.AIR) {
+            return Optional.empty();
+        }
+
+        Optional<NbtCompound> nbt = Optional.empty();
+        if (nbtPayload.isPresent()) {
+            nbt = MinecraftNbtPayloadCache.shared().parseShared(nbtPayload.get());
+            if (nbt.isEmpty()) {
+                return Optional.empty();
+            }
+        }
+
+        ItemStack prototype = new ItemStack(item);
+        if (prototype.isEmpty()) {
+            return Optional.empty();
+        }
+        nbt.ifPresent(parsed -> prototype.setNbt(parsed.copy()));
+        return Optional.of(new MinecraftCompiledItem(
+                item,
+                Registries.ITEM.getRawId(item),
+                Registries.ITEM.getId(item).toString().equals(itemId),
+                nbt.map(MinecraftNbtPredicate::compile),
+                nbt.map(MinecraftNbtCanonicalForm::structuralHash).orElse(0L),
+                prototype.getMaxCount(),
+                prototype));
+    }
+
+    public record Statistics(long hits, long misses, long evictions, int size, long generation) {
+    }
+
+    private record ItemKey(String itemId, Optional<String> nbtPayload) {
+    }
+}
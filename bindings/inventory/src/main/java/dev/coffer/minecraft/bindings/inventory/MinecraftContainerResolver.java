@@ -1,10 +1,17 @@
 package dev.coffer.minecraft.bindings.inventory;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import net.minecraft.item.ItemStack;
 import org.coffer.core.model.authority.AuthorityRequest;
 import org.coffer.core.model.id.ActorRef;
@@ -17,11 +24,67 @@ import org.coffer.runtime.model.execution.MutationExecutionRequest;
 public final class MinecraftContainerResolver
         implements TransferableValueContainerResolver, TransferableValueRuntimeContainerResolver {
     public static final String PLAYER_INVENTORY_KIND = "minecraft.player.inventory";
+    public static final int DEFAULT_IDENTITY_CACHE_CAPACITY = 1024;
 
     private final PlayerInventorySlots slots;
+    private final MinecraftInventoryValidationMemo validationMemo;
+    private final int identityCacheCapacity;
+    private final Map<String, Optional<ContainerIdentity>> identities = new ConcurrentHashMap<>();
+    private final LongAdder identityHits = new LongAdder();
+    private final LongAdder identityMisses = new LongAdder();
+    private final LongAdder identityEvictions = new LongAdder();
 
     public MinecraftContainerResolver(PlayerInventorySlots slots) {
+        this(slots, DEFAULT_IDENTITY_CACHE_CAPACITY);
+    }
+
+    public MinecraftContainerResolver(PlayerInventorySlots slots, int identityCacheCapacity) {
+        this(slots, identityCacheCapacity, new MinecraftInventoryValidationMemo(MinecraftInventoryValidationMemo.DEFAULT_CAPACITY));
+    }
+
+    /** Resolvers sharing a memo reuse each other's verdicts whenever their slot providers report the same version. */
+    public MinecraftContainerResolver(PlayerInventorySlots slots, MinecraftInventoryValidationMemo validationMemo) {
+        this(slots, DEFAULT_IDENTITY_CACHE_CAPACITY, validationMemo);
+    }
+
+    private MinecraftContainerResolver(
+            PlayerInventorySlots slots,
+            int identityCacheCapacity,
+            MinecraftInventoryValidationMemo validationMemo) {
+        if (identityCacheCapacity < 0) {
+            throw new IllegalArgumentException("identityCacheCapacity must not be negative");
+        }
         this.slots = Objects.requireNonNull(slots, "slots");
+        this.identityCacheCapacity = identityCacheCapacity;
+        this.validationMemo = Objects.requireNonNull(validationMemo, "validationMemo");
+    }
+
+    public MinecraftInventoryValidationMemo validationMemo() {
+        return validationMemo;
+    }
+
+    public IdentityCacheStatistics identityCacheStatistics() {
+        return new IdentityCacheStatistics(
+                identityHits.sum(),
+                identityMisses.sum(),
+                identityEvictions.sum(),
+                identities.size());
+    }
+
+    public static Optional<UUID> playerId(ActorDeclaration actor) {
+        Objects.requireNonNull(actor, "actor");
+        if (!PLAYER_INVENTORY_KIND.equals(actor.kind()) || actor.actorRef() == null) {
+            return Optional.empty();
+        }
+        return ContainerIdentity.playerId(actor.actorRef().value().split(":"));
+    }
+
+    public static Optional<List<MinecraftPlayerInventoryContainer.Region>> regions(ActorDeclaration actor) {
+        Objects.requireNonNull(actor, "actor");
+        if (playerId(actor).isEmpty()) {
+            return Optional.empty();
+        }
+        return ContainerIdentity.regions(actor.actorRef().value().split(":")[3]);
     }
 
     @Override
@@ -48,40 +111,159 @@ public final class MinecraftContainerResolver
 
     private Optional<TransferableValueContainer> resolve(ActorRef actorRef) {
         Objects.requireNonNull(actorRef, "actorRef");
-        Optional<ContainerIdentity> identity = ContainerIdentity.parse(actorRef.value());
+        Optional<ContainerIdentity> identity = identity(actorRef.value());
         if (identity.isEmpty()) {
             return Optional.empty();
         }
 
         ContainerIdentity parsed = identity.get();
         return Optional.of(new MinecraftPlayerInventoryContainer(
-                actorRef.value(),
-                parsed.region(),
-                () -> slots.resolve(parsed.playerId(), parsed.region())));
+                parsed.containerId(),
+                parsed.regions(),
+                Optional.of(parsed.playerId()),
+                parsed.slots(),
+                parsed.version(),
+                validationMemo));
+    }
+
+    private Optional<ContainerIdentity> identity(String actorRef) {
+        Optional<ContainerIdentity> cached = identities.get(actorRef);
+        if (cached != null) {
+            identityHits.increment();
+            return cached;
+        }
+        identityMisses.increment();
+
+        Optional<ContainerIdentity> parsed = ContainerIdentity.parse(actorRef, slots);
+        if (identityCacheCapacity == 0) {
+            return parsed;
+        }
+        Optional<ContainerIdentity> raced = identities.putIfAbsent(actorRef, parsed);
+        if (raced != null) {
+            return raced;
+        }
+        Iterator<String> candidates = identities.keySet().iterator();
+        while (identities.size() > identityCacheCapacity && candidates.hasNext()) {
+            String evicted = candidates.next();
+            if (!evicted.equals(actorRef) && identities.remove(evicted) != null) {
+                identityEvictions.increment();
+            }
+        }
+        return parsed;
     }
 
     @FunctionalInterface
     public interface PlayerInventorySlots {
         Optional<List<ItemStack>> resolve(UUID playerId, MinecraftPlayerInventoryContainer.Region region);
+
+        default Optional<List<ItemStack>> resolve(UUID playerId, List<MinecraftPlayerInventoryContainer.Region> regions) {
+            List<List<ItemStack>> segments = new ArrayList<>(regions.size());
+            for (MinecraftPlayerInventoryContainer.Region region : regions) {
+                Optional<List<ItemStack>> segment = resolve(playerId, region);
+                if (segment == null || segment.isEmpty()) {
+                    return Optional.empty();
+                }
+                segments.add(segment.get());
+            }
+            return Optional.of(MinecraftInventorySlotUnion.of(segments));
+        }
+
+        default OptionalLong version(UUID playerId) {
+            return OptionalLong.empty();
+        }
+
+        default void mutated(UUID playerId) {
+        }
+    }
+
+    private record PlayerInventoryVersion(PlayerInventorySlots slots, UUID playerId)
+            implements MinecraftPlayerInventoryContainer.InventoryVersion {
+        @Override
+        public OptionalLong current() {
+            return slots.version(playerId);
+        }
+
+        @Override
+        public void mutated() {
+            slots.mutated(playerId);
+        }
+    }
+
+    public record IdentityCacheStatistics(long hits, long misses, long evictions, int size) {
     }
 
-    private record ContainerIdentity(UUID playerId, MinecraftPlayerInventoryContainer.Region region) {
-        private static Optional<ContainerIdentity> parse(String actorRef) {
+    private record ContainerIdentity(
+            String containerId,
+            UUID playerId,
+            List<MinecraftPlayerInventoryContainer.Region> regions,
+            Supplier<Optional<List<ItemStack>>> slots,
+            PlayerInventoryVersion version) {
+        private static Optional<ContainerIdentity> parse(String actorRef, PlayerInventorySlots inventorySlots) {
             String[] parts = actorRef.split(":");
-            if (parts.length != 4 || !"player".equals(parts[0]) || !"inventory".equals(parts[2])) {
+            Optional<UUID> parsedPlayerId = playerId(parts);
+            if (parsedPlayerId.isEmpty()) {
                 return Optional.empty();
             }
 
-            UUID playerId;
+            UUID playerId = parsedPlayerId.get();
+            Optional<List<MinecraftPlayerInventoryContainer.Region>> regions = regions(parts[3]);
+            if (regions.isEmpty()) {
+                return Optional.empty();
+            }
+            List<MinecraftPlayerInventoryContainer.Region> parsedRegions = regions.get();
+            Supplier<Optional<List<ItemStack>>> slots = parsedRegions.size() == 1
+                    ? () -> inventorySlots.resolve(playerId, parsedRegions.get(0))
+                    : () -> inventorySlots.resolve(playerId, parsedRegions);
+            return Optional.of(new ContainerIdentity(
+                    containerId(playerId, parsedRegions),
+                    playerId,
+                    parsedRegions,
+                    slots,
+                    new PlayerInventoryVersion(inventorySlots, playerId)));
+        }
+
+        private static Optional<UUID> playerId(String[] parts) {
+            if (parts.length != 4 || !"player".equals(parts[0]) || !"inventory".equals(parts[2])) {
+                return Optional.empty();
+            }
             try {
-                playerId = UUID.fromString(parts[1]);
+                return Optional.of(UUID.fromString(parts[1]));
             } catch (IllegalArgumentException exception) {
                 return Optional.empty();
             }
+        }
+
+        private static String containerId(UUID playerId, List<MinecraftPlayerInventoryContainer.Region> regions) {
+            StringBuilder containerId = new StringBuilder("player:").append(playerId).append(":inventory:");
+            for (int index = 0; index < regions.size(); index++) {
+                if (index > 0) {
+                    containerId.append('+');
+                }
+                containerId.append(regions.get(index).serializedName());
+            }
+            return containerId.toString();
+        }
+
+        /** Armor slots only take matching equipment, so armor is never part of a multi-region union. */
+        private static Optional<List<MinecraftPlayerInventoryContainer.Region>> regions(String serializedRegions) {
+            EnumSet<MinecraftPlayerInventoryContainer.Region> regions =
+                    EnumSet.noneOf(MinecraftPlayerInventoryContainer.Region.class);
+            for (String serializedRegion : serializedRegions.split("\\+", -1)) {
+                Optional<MinecraftPlayerInventoryContainer.Region> region = region(serializedRegion);
+                if (region.isEmpty() || !regions.add(region.get())) {
+                    return Optional.empty();
+                }
+            }
+            if (regions.size() > 1 && regions.contains(MinecraftPlayerInventoryContainer.Region.ARMOR)) {
+                return Optional.empty();
+            }
+            return Optional.of(List.copyOf(regions));
+        }
 
+        private static Optional<MinecraftPlayerInventoryContainer.Region> region(String serializedRegion) {
             for (MinecraftPlayerInventoryContainer.Region region : MinecraftPlayerInventoryContainer.Region.values()) {
-                if (region.serializedName().equals(parts[3])) {
-                    return Optional.of(new ContainerIdentity(playerId, region));
+                if (region.serializedName().equals(serializedRegion)) {
+                    return Optional.of(region);
                 }
             }
             return Optional.empty();
@@ -12,6 +12,16 @@ public final class MinecraftDescriptorFactory implements TransferableValueDescri
     public static final String QUANTITY = "quantity";
     public static final String NBT_PAYLOAD = "nbtPayload";
 
+    private final Optional<MinecraftDescriptorInterner> interner;
+
+    public MinecraftDescriptorFactory() {
+        this.interner = Optional.empty();
+    }
+
+    public MinecraftDescriptorFactory(MinecraftDescriptorInterner interner) {
+        this.interner = Optional.of(Objects.requireNonNull(interner, "interner"));
+    }
+
     @Override
     public Optional<TransferableValueDescriptor> create(ValueDeclaration value, String bindingId) {
         Objects.requireNonNull(value, "value");
@@ -39,6 +49,9 @@ public final class MinecraftDescriptorFactory implements TransferableValueDescri
         }
 
         try {
+            if (interner.isPresent()) {
+                return Optional.of(interner.get().descriptor(itemId.get(), quantity, nbtPayload.get()));
+            }
             return Optional.of(new MinecraftItemDescriptor(itemId.get(), quantity, nbtPayload.get()));
         } catch (IllegalArgumentException exception) {
             return Optional.empty();
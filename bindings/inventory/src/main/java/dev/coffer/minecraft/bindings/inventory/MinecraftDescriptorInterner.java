@@ -0,0 +1,163 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+public final class MinecraftDescriptorInterner {
+    static final int MAX_SPELLINGS_PER_CONTENT = 8;
+
+    private final Map<ContentKey, ContentReference> contents = new HashMap<>();
+    private final Map<Long, ContentReference> contentsByHash = new HashMap<>();
+    private final Map<Long, Integer> ambiguousHashes = new HashMap<>();
+    private final ReferenceQueue<MinecraftItemContent> collected = new ReferenceQueue<>();
+    private long hits;
+    private long misses;
+    private int size;
+
+    public Statistics statistics() {
+        synchronized (contents) {
+            expungeCollected();
+            return new Statistics(hits, misses, size);
+        }
+    }
+
+    MinecraftItemDescriptor descriptor(String itemId, long quantity, Optional<String> nbtPayload) {
+        MinecraftItemContent content = intern(itemId, nbtPayload);
+        Optional<String> sharedNbtPayload =
+                nbtPayload.equals(content.canonicalNbtPayload()) ? content.canonicalNbtPayload() : nbtPayload;
+        return new MinecraftItemDescriptor(content, quantity, sharedNbtPayload);
+    }
+
+    MinecraftItemContent intern(String itemId, Optional<String> nbtPayload) {
+        Objects.requireNonNull(itemId, "itemId");
+        Objects.requireNonNull(nbtPayload, "nbtPayload");
+        ContentKey spelling = new ContentKey(itemId, nbtPayload);
+        synchronized (contents) {
+            expungeCollected();
+            MinecraftItemContent existing = live(contents.get(spelling));
+            if (existing != null) {
+                hits++;
+                return existing;
+            }
+        }
+
+        Optional<String> canonicalNbtPayload = MinecraftItemContent.canonicalize(nbtPayload);
+        ContentKey key = new ContentKey(itemId, canonicalNbtPayload);
+        synchronized (contents) {
+            expungeCollected();
+            ContentReference reference = contents.get(key);
+            MinecraftItemContent existing = live(reference);
+            if (existing != null) {
+                hits++;
+            } else {
+                misses++;
+                existing = MinecraftItemContent.canonical(itemId, canonicalNbtPayload);
+                reference = register(key, existing);
+            }
+            if (!spelling.equals(key) && reference.spellings.size() < MAX_SPELLINGS_PER_CONTENT) {
+                reference.spellings.add(spelling);
+                contents.put(spelling, reference);
+            }
+            return existing;
+        }
+    }
+
+    MinecraftItemContent intern(MinecraftItemContent content) {
+        Objects.requireNonNull(content, "content");
+        synchronized (contents) {
+            expungeCollected();
+            MinecraftItemContent byHash = live(contentsByHash.get(content.hash()));
+            if (byHash != null && byHash.sameAs(content)) {
+                hits++;
+                return byHash;
+            }
+            ContentKey key = new ContentKey(content.itemId(), content.canonicalNbtPayload());
+            MinecraftItemContent existing = live(contents.get(key));
+            if (existing != null) {
+                hits++;
+                return existing;
+            }
+            misses++;
+            register(key, content);
+            return content;
+        }
+    }
+
+    Optional<MinecraftItemContent> find(long contentHash) {
+        synchronized (contents) {
+            expungeCollected();
+            return Optional.ofNullable(live(contentsByHash.get(contentHash)));
+        }
+    }
+
+    private ContentReference register(ContentKey key, MinecraftItemContent content) {
+        ContentReference reference = new ContentReference(key, content, collected);
+        contents.put(key, reference);
+        size++;
+        indexByHash(content, reference);
+        return reference;
+    }
+
+    private void indexByHash(MinecraftItemContent content, ContentReference reference) {
+        Integer sharing = ambiguousHashes.get(content.hash());
+        if (sharing != null) {
+            ambiguousHashes.put(content.hash(), sharing + 1);
+            reference.ambiguous = true;
+            return;
+        }
+        ContentReference existing = contentsByHash.get(content.hash());
+        MinecraftItemContent existingContent = live(existing);
+        if (existingContent != null && !existingContent.sameAs(content)) {
+            contentsByHash.remove(content.hash());
+            existing.ambiguous = true;
+            reference.ambiguous = true;
+            ambiguousHashes.put(content.hash(), 2);
+            return;
+        }
+        contentsByHash.put(content.hash(), reference);
+    }
+
+    private void expungeCollected() {
+        ContentReference reference;
+        while ((reference = (ContentReference) collected.poll()) != null) {
+            contents.remove(reference.key, reference);
+            for (ContentKey spelling : reference.spellings) {
+                contents.remove(spelling, reference);
+            }
+            contentsByHash.remove(reference.hash, reference);
+            if (reference.ambiguous) {
+                ambiguousHashes.computeIfPresent(reference.hash, (hash, sharing) -> sharing == 1 ? null : sharing - 1);
+            }
+            size--;
+        }
+    }
+
+    private static MinecraftItemContent live(ContentReference reference) {
+        return reference == null ? null : reference.get();
+    }
+
+    public record Statistics(long hits, long misses, int size) {
+    }
+
+    private record ContentKey(String itemId, Optional<String> nbtPayload) {
+    }
+
+    private static final class ContentReference extends WeakReference<MinecraftItemContent> {
+        private final ContentKey key;
+        private final long hash;
+        private final List<ContentKey> spellings = new ArrayList<>(0);
+        private boolean ambiguous;
+
+        ContentReference(ContentKey key, MinecraftItemContent content, ReferenceQueue<MinecraftItemContent> queue) {
+            super(content, queue);
+            this.key = key;
+            this.hash = content.hash();
+        }
+    }
+}
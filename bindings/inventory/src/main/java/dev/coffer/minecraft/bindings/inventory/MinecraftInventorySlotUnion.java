@@ -0,0 +1,59 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import net.minecraft.item.ItemStack;
+
+final class MinecraftInventorySlotUnion extends AbstractList<ItemStack> implements RandomAccess {
+    private final List<List<ItemStack>> segments;
+    private final int[] offsets;
+    private final int size;
+
+    private MinecraftInventorySlotUnion(List<List<ItemStack>> segments) {
+        this.segments = segments;
+        this.offsets = new int[segments.size()];
+        int offset = 0;
+        for (int segment = 0; segment < segments.size(); segment++) {
+            offsets[segment] = offset;
+            offset += segments.get(segment).size();
+        }
+        this.size = offset;
+    }
+
+    static List<ItemStack> of(List<List<ItemStack>> segments) {
+        Objects.requireNonNull(segments, "segments");
+        if (segments.size() == 1) {
+            return segments.get(0);
+        }
+        return new MinecraftInventorySlotUnion(List.copyOf(segments));
+    }
+
+    @Override
+    public ItemStack get(int index) {
+        Objects.checkIndex(index, size);
+        int segment = segment(index);
+        return segments.get(segment).get(index - offsets[segment]);
+    }
+
+    @Override
+    public ItemStack set(int index, ItemStack stack) {
+        Objects.checkIndex(index, size);
+        int segment = segment(index);
+        return segments.get(segment).set(index - offsets[segment], stack);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int segment(int index) {
+        int segment = offsets.length - 1;
+        while (offsets[segment] > index) {
+            segment--;
+        }
+        return segment;
+    }
+}
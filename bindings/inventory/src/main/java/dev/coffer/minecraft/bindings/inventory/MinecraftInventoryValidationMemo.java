@@ -0,0 +1,97 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class MinecraftInventoryValidationMemo {
+    public static final int DEFAULT_CAPACITY = 256;
+
+    private static final MinecraftInventoryValidationMemo DISABLED = new MinecraftInventoryValidationMemo(0);
+
+    private final int capacity;
+    private final Map<Key, Object> results;
+    private final LongAdder slotScans = new LongAdder();
+    private final LongAdder reusedResults = new LongAdder();
+    private final LongAdder computedResults = new LongAdder();
+
+    public MinecraftInventoryValidationMemo(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative");
+        }
+        this.capacity = capacity;
+        this.results = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    static MinecraftInventoryValidationMemo disabled() {
+        return DISABLED;
+    }
+
+    public Statistics statistics() {
+        synchronized (results) {
+            return new Statistics(slotScans.sum(), reusedResults.sum(), computedResults.sum(), results.size());
+        }
+    }
+
+    <T> Optional<T> find(Key key, Class<T> resultType) {
+        Objects.requireNonNull(key, "key");
+        if (capacity == 0) {
+            return Optional.empty();
+        }
+        Object result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+        if (!resultType.isInstance(result)) {
+            return Optional.empty();
+        }
+        reusedResults.increment();
+        return Optional.of(resultType.cast(result));
+    }
+
+    void remember(Key key, Object result) {
+        Objects.requireNonNull(key, "key");
+        Objects.requireNonNull(result, "result");
+        computedResults.increment();
+        if (capacity == 0) {
+            return;
+        }
+        synchronized (results) {
+            results.put(key, result);
+            if (results.size() > capacity) {
+                Key eldest = results.keySet().iterator().next();
+                results.remove(eldest);
+            }
+        }
+    }
+
+    void invalidate(String containerId) {
+        if (capacity == 0) {
+            return;
+        }
+        synchronized (results) {
+            results.keySet().removeIf(key -> key.involves(containerId));
+        }
+    }
+
+    void recordSlotScan() {
+        slotScans.increment();
+    }
+
+    interface Key {
+        boolean involves(String containerId);
+    }
+
+    public record Statistics(long slotScans, long reusedResults, long computedResults, int size) {
+        public Statistics minus(Statistics earlier) {
+            Objects.requireNonNull(earlier, "earlier");
+            return new Statistics(
+                    slotScans - earlier.slotScans,
+                    reusedResults - earlier.reusedResults,
+                    computedResults - earlier.computedResults,
+                    size);
+        }
+    }
+}
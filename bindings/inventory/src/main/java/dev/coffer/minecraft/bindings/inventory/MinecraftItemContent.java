@@ -0,0 +1,62 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import java.util.Objects;
+import java.util.Optional;
+
+final class MinecraftItemContent {
+    private final String itemId;
+    private final Optional<String> canonicalNbtPayload;
+    private final long hash;
+    private volatile Compilation compilation;
+
+    private MinecraftItemContent(String itemId, Optional<String> canonicalNbtPayload) {
+        this.itemId = Objects.requireNonNull(itemId, "itemId");
+        this.canonicalNbtPayload = Objects.requireNonNull(canonicalNbtPayload, "canonicalNbtPayload");
+        this.hash = MinecraftNbtCanonicalForm.hash(itemId, canonicalNbtPayload);
+    }
+
+    static MinecraftItemContent of(String itemId, Optional<String> nbtPayload) {
+        return canonical(itemId, canonicalize(nbtPayload));
+    }
+
+    static MinecraftItemContent canonical(String itemId, Optional<String> canonicalNbtPayload) {
+        return new MinecraftItemContent(itemId, canonicalNbtPayload);
+    }
+
+    static Optional<String> canonicalize(Optional<String> nbtPayload) {
+        return nbtPayload.map(payload -> MinecraftNbtCanonicalForm.canonicalize(payload).orElse(payload));
+    }
+
+    String itemId() {
+        return itemId;
+    }
+
+    Optional<String> canonicalNbtPayload() {
+        return canonicalNbtPayload;
+    }
+
+    long hash() {
+        return hash;
+    }
+
+    boolean sameAs(MinecraftItemContent other) {
+        return other == this
+                || hash == other.hash
+                        && itemId.equals(other.itemId)
+                        && canonicalNbtPayload.equals(other.canonicalNbtPayload);
+    }
+
+    Optional<MinecraftCompiledItem> compiled() {
+        MinecraftCompiledItemCache cache = MinecraftCompiledItemCache.shared();
+        Compilation current = compilation;
+        if (current == null || current.generation() != cache.generation()) {
+            long generation = cache.generation();
+            current = new Compilation(generation, cache.compile(itemId, canonicalNbtPayload));
+            compilation = current;
+        }
+        return current.item();
+    }
+
+    private record Compilation(long generation, Optional<MinecraftCompiledItem> item) {
+    }
+}
@@ -8,6 +8,7 @@ public final class MinecraftItemDescriptor implements TransferableValueDescripto
     private final String itemId;
     private final long quantity;
     private final Optional<String> nbtPayload;
+    private volatile MinecraftItemContent content;
 
     public MinecraftItemDescriptor(String itemId, long quantity, Optional<String> nbtPayload) {
         if (itemId == null || itemId.isBlank()) {
@@ -29,6 +30,11 @@ public final class MinecraftItemDescriptor implements TransferableValueDescripto
         this.nbtPayload = checkedNbtPayload;
     }
 
+    MinecraftItemDescriptor(MinecraftItemContent content, long quantity, Optional<String> nbtPayload) {
+        this(content.itemId(), quantity, nbtPayload);
+        this.content = content;
+    }
+
     public String itemId() {
         return itemId;
     }
@@ -41,4 +47,30 @@ public final class MinecraftItemDescriptor implements TransferableValueDescripto
     public Optional<String> nbtPayload() {
         return nbtPayload;
     }
+
+    public Optional<String> canonicalNbtPayload() {
+        return content().canonicalNbtPayload();
+    }
+
+    public long contentHash() {
+        return content().hash();
+    }
+
+    public boolean sameContent(MinecraftItemDescriptor other) {
+        Objects.requireNonNull(other, "other");
+        return other == this || content().sameAs(other.content());
+    }
+
+    Optional<MinecraftCompiledItem> compiled() {
+        return content().compiled();
+    }
+
+    MinecraftItemContent content() {
+        MinecraftItemContent current = content;
+        if (current == null) {
+            current = MinecraftItemContent.of(itemId, nbtPayload);
+            content = current;
+        }
+        return current;
+    }
 }
@@ -1,11 +1,15 @@
 package dev.coffer.minecraft.bindings.inventory;
 
-import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.NbtCompound;
-import net.minecraft.nbt.StringNbtReader;
-import net.minecraft.registry.Registries;
 
 public final class MinecraftItemMatcher {
     private MinecraftItemMatcher() {
@@ -18,26 +22,139 @@ public final class MinecraftItemMatcher {
         if (stack.isEmpty()) {
             return false;
         }
-        if (!Registries.ITEM.getId(stack.getItem()).toString().equals(descriptor.itemId())) {
+        Optional<MinecraftCompiledItem> compiled = descriptor.compiled();
+        if (compiled.isEmpty() || !compiled.get().canonicalId() || stack.getItem() != compiled.get().item()) {
             return false;
         }
+        return matchesNbt(stack, compiled.get().nbtPredicate(), compiled.get().nbtHash());
+    }
+
+    public static Patterns compile(List<MinecraftItemDescriptor> descriptors) {
+        Objects.requireNonNull(descriptors, "descriptors");
+
+        Map<Item, List<Pattern>> patternsByItem = new IdentityHashMap<>();
+        for (int index = 0; index < descriptors.size(); index++) {
+            Optional<MinecraftCompiledItem> compiled = descriptors.get(index).compiled();
+            if (compiled.isPresent() && compiled.get().canonicalId()) {
+                patternsByItem.computeIfAbsent(compiled.get().item(), ignored -> new ArrayList<>())
+                        .add(new Pattern(index, compiled.get().nbtPredicate(), compiled.get().nbtHash()));
+            }
+        }
+
+        Map<Item, Pattern[]> dispatch = new IdentityHashMap<>();
+        patternsByItem.forEach((item, patterns) -> dispatch.put(item, patterns.toArray(Pattern[]::new)));
+        return new Patterns(descriptors.size(), dispatch);
+    }
 
-        boolean stackHasNbt = stack.hasNbt();
-        boolean descriptorHasNbt = descriptor.nbtPayload().isPresent();
-        if (stackHasNbt != descriptorHasNbt) {
+    private static boolean matchesNbt(
+            ItemStack stack,
+            Optional<MinecraftNbtPredicate> descriptorNbt,
+            long descriptorNbtHash) {
+        if (stack.hasNbt() != descriptorNbt.isPresent()) {
             return false;
         }
-        if (!descriptorHasNbt) {
+        if (descriptorNbt.isEmpty()) {
             return true;
         }
-
-        NbtCompound descriptorNbt;
-        try {
-            descriptorNbt = StringNbtReader.parse(descriptor.nbtPayload().orElseThrow());
-        } catch (CommandSyntaxException exception) {
+        OptionalLong stackNbtHash = MinecraftStackNbtHashMemo.hash(stack);
+        if (stackNbtHash.isPresent() && stackNbtHash.getAsLong() != descriptorNbtHash) {
             return false;
         }
+        return descriptorNbt.get().test(stack.getNbt());
+    }
+
+    public static final class Patterns {
+        private static final Pattern[] NO_PATTERNS = new Pattern[0];
+
+        private final int size;
+        private final Map<Item, Pattern[]> patternsByItem;
+
+        private Patterns(int size, Map<Item, Pattern[]> patternsByItem) {
+            this.size = size;
+            this.patternsByItem = patternsByItem;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Scan scan(List<ItemStack> slots) {
+            Objects.requireNonNull(slots, "slots");
+
+            Scan scan = new Scan(size, slots.size());
+            for (int slot = 0; slot < slots.size(); slot++) {
+                ItemStack stack = slots.get(slot);
+                if (stack.isEmpty()) {
+                    scan.emptySlots.set(slot);
+                    continue;
+                }
+                for (Pattern pattern : candidates(stack)) {
+                    if (pattern.matches(stack)) {
+                        scan.matchingSlots[pattern.index()].set(slot);
+                        scan.matchingQuantities[pattern.index()] += stack.getCount();
+                        scan.partialCapacities[pattern.index()] += Math.max(0, stack.getMaxCount() - stack.getCount());
+                    }
+                }
+            }
+            return scan;
+        }
+
+        void classify(ItemStack stack, int slot, BitSet[] matchingSlots) {
+            if (stack.isEmpty()) {
+                return;
+            }
+            for (Pattern pattern : candidates(stack)) {
+                if (pattern.matches(stack)) {
+                    matchingSlots[pattern.index()].set(slot);
+                }
+            }
+        }
 
-        return descriptorNbt.equals(stack.getNbt());
+        private Pattern[] candidates(ItemStack stack) {
+            return patternsByItem.getOrDefault(stack.getItem(), NO_PATTERNS);
+        }
+    }
+
+    public static final class Scan {
+        private final BitSet[] matchingSlots;
+        private final long[] matchingQuantities;
+        private final long[] partialCapacities;
+        private final BitSet emptySlots;
+
+        private Scan(int descriptors, int slots) {
+            this.matchingSlots = new BitSet[descriptors];
+            this.matchingQuantities = new long[descriptors];
+            this.partialCapacities = new long[descriptors];
+            this.emptySlots = new BitSet(slots);
+            for (int index = 0; index < descriptors; index++) {
+                matchingSlots[index] = new BitSet(slots);
+            }
+        }
+
+        public long matchingQuantity(int descriptor) {
+            return matchingQuantities[descriptor];
+        }
+
+        public long partialCapacity(int descriptor) {
+            return partialCapacities[descriptor];
+        }
+
+        public BitSet matchingSlots(int descriptor) {
+            return matchingSlots[descriptor];
+        }
+
+        public BitSet emptySlots() {
+            return emptySlots;
+        }
+
+        BitSet[] matchingSlots() {
+            return matchingSlots;
+        }
+    }
+
+    private record Pattern(int index, Optional<MinecraftNbtPredicate> nbt, long nbtHash) {
+        boolean matches(ItemStack stack) {
+            return matchesNbt(stack, nbt, nbtHash);
+        }
     }
 }
@@ -0,0 +1,123 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import net.minecraft.nbt.AbstractNbtNumber;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+import net.minecraft.nbt.NbtList;
+import net.minecraft.nbt.NbtString;
+
+final class MinecraftNbtCanonicalForm {
+    private static final Pattern SIMPLE_KEY = Pattern.compile("[A-Za-z0-9._+-]+");
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final char SEPARATOR = '\u001f';
+
+    private MinecraftNbtCanonicalForm() {
+    }
+
+    static Optional<String> canonicalize(String payload) {
+        Objects.requireNonNull(payload, "payload");
+        return MinecraftNbtPayloadCache.shared().parseShared(payload).map(MinecraftNbtCanonicalForm::write);
+    }
+
+    static String write(NbtCompound compound) {
+        StringBuilder out = new StringBuilder();
+        write(compound, out);
+        return out.toString();
+    }
+
+    static long hash(String itemId, Optional<String> canonicalNbtPayload) {
+        long hash = hash(FNV_OFFSET_BASIS, itemId);
+        if (canonicalNbtPayload.isPresent()) {
+            hash = (hash ^ SEPARATOR) * FNV_PRIME;
+            hash = hash(hash, canonicalNbtPayload.get());
+        }
+        return hash;
+    }
+
+    static long structuralHash(NbtElement element) {
+        switch (element.getType()) {
+            case NbtElement.COMPOUND_TYPE -> {
+                NbtCompound compound = (NbtCompound) element;
+                long entries = 0;
+                for (String key : compound.getKeys()) {
+                    entries += mix(hash(FNV_OFFSET_BASIS, key) * FNV_PRIME ^ structuralHash(compound.get(key)));
+                }
+                return mix(entries ^ ((long) compound.getSize() << 8 | NbtElement.COMPOUND_TYPE));
+            }
+            case NbtElement.LIST_TYPE -> {
+                NbtList list = (NbtList) element;
+                long hash = FNV_OFFSET_BASIS ^ NbtElement.LIST_TYPE;
+                for (int index = 0; index < list.size(); index++) {
+                    hash = (hash ^ structuralHash(list.get(index))) * FNV_PRIME;
+                }
+                return mix(hash);
+            }
+            case NbtElement.FLOAT_TYPE -> {
+                float value = ((AbstractNbtNumber) element).floatValue();
+                long bits = value == 0.0f ? 0L : Float.floatToIntBits(value) & 0xffffffffL;
+                return mix(((long) NbtElement.FLOAT_TYPE << 32) ^ bits);
+            }
+            case NbtElement.DOUBLE_TYPE -> {
+                double value = ((AbstractNbtNumber) element).doubleValue();
+                long bits = value == 0.0 ? 0L : Double.doubleToLongBits(value);
+                return mix(((long) NbtElement.DOUBLE_TYPE << 32) ^ bits);
+            }
+            default -> {
+                return mix(((long) element.getType() << 32) ^ (element.hashCode() & 0xffffffffL));
+            }
+        }
+    }
+
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private static long hash(long hash, String value) {
+        for (int index = 0; index < value.length(); index++) {
+            hash = (hash ^ value.charAt(index)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static void write(NbtElement element, StringBuilder out) {
+        switch (element.getType()) {
+            case NbtElement.COMPOUND_TYPE -> {
+                NbtCompound compound = (NbtCompound) element;
+                List<String> keys = new ArrayList<>(compound.getKeys());
+                Collections.sort(keys);
+                out.append('{');
+                for (int index = 0; index < keys.size(); index++) {
+                    if (index > 0) {
+                        out.append(',');
+                    }
+                    String key = keys.get(index);
+                    out.append(SIMPLE_KEY.matcher(key).matches() ? key : NbtString.escape(key)).append(':');
+                    write(compound.get(key), out);
+                }
+                out.append('}');
+            }
+            case NbtElement.LIST_TYPE -> {
+                NbtList list = (NbtList) element;
+                out.append('[');
+                for (int index = 0; index < list.size(); index++) {
+                    if (index > 0) {
+                        out.append(',');
+                    }
+                    write(list.get(index), out);
+                }
+                out.append(']');
+            }
+            case NbtElement.STRING_TYPE -> out.append(NbtString.escape(element.asString()));
+            default -> out.append(element.asString());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.StringNbtReader;
+
+public final class MinecraftNbtPayloadCache {
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final MinecraftNbtPayloadCache SHARED = new MinecraftNbtPayloadCache(DEFAULT_CAPACITY);
+
+    private final int capacity;
+    private final Map<String, Optional<NbtCompound>> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public MinecraftNbtPayloadCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public static MinecraftNbtPayloadCache shared() {
+        return SHARED;
+    }
+
+    public Optional<NbtCompound> parse(String payload) {
+        return parseShared(payload).map(NbtCompound::copy);
+    }
+
+    /** Returned compounds are the cached instances; only binding internals that never mutate them may use this. */
+    Optional<NbtCompound> parseShared(String payload) {
+        Objects.requireNonNull(payload, "payload");
+        synchronized (entries) {
+            Optional<NbtCompound> cached = entries.get(payload);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        Optional<NbtCompound> parsed;
+        try {
+            parsed = Optional.of(StringNbtReader.parse(payload));
+        } catch (CommandSyntaxException exception) {
+            parsed = Optional.empty();
+        }
+
+        synchronized (entries) {
+            Optional<NbtCompound> raced = entries.putIfAbsent(payload, parsed);
+            if (raced != null) {
+                return raced;
+            }
+            if (entries.size() > capacity) {
+                String eldest = entries.keySet().iterator().next();
+                entries.remove(eldest);
+                evictions++;
+            }
+            return parsed;
+        }
+    }
+
+    public Statistics statistics() {
+        synchronized (entries) {
+            return new Statistics(hits, misses, evictions, entries.size());
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public record Statistics(long hits, long misses, long evictions, int size) {
+    }
+}
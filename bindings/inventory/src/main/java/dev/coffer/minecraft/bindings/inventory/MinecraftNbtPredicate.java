@@ -0,0 +1,101 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtElement;
+
+final class MinecraftNbtPredicate {
+    private final Step[] steps;
+    private final int depth;
+
+    private MinecraftNbtPredicate(Step[] steps, int depth) {
+        this.steps = steps;
+        this.depth = depth;
+    }
+
+    static MinecraftNbtPredicate compile(NbtCompound compound) {
+        Objects.requireNonNull(compound, "compound");
+
+        List<Step> steps = new ArrayList<>();
+        steps.add(new Step(Step.SIZE, null, (byte) 0, null, compound.getSize()));
+        int depth = compile(compound, steps, 1);
+        return new MinecraftNbtPredicate(steps.toArray(Step[]::new), depth);
+    }
+
+    boolean test(NbtCompound stackNbt) {
+        NbtCompound[] compounds = new NbtCompound[depth];
+        int level = 0;
+        compounds[0] = stackNbt;
+        for (Step step : steps) {
+            NbtCompound current = compounds[level];
+            switch (step.kind()) {
+                case Step.SIZE -> {
+                    if (current.getSize() != step.size()) {
+                        return false;
+                    }
+                }
+                case Step.ENTER -> {
+                    NbtElement child = current.get(step.key());
+                    if (!(child instanceof NbtCompound childCompound) || childCompound.getSize() != step.size()) {
+                        return false;
+                    }
+                    compounds[++level] = childCompound;
+                }
+                case Step.EXIT -> level--;
+                default -> {
+                    NbtElement actual = current.get(step.key());
+                    if (actual == null || actual.getType() != step.type() || !step.value().equals(actual)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int compile(NbtCompound compound, List<Step> steps, int depth) {
+        List<String> leaves = new ArrayList<>();
+        List<String> children = new ArrayList<>();
+        for (String key : compound.getKeys()) {
+            NbtElement element = compound.get(key);
+            if (element.getType() == NbtElement.COMPOUND_TYPE) {
+                children.add(key);
+            } else {
+                leaves.add(key);
+            }
+        }
+        leaves.sort(Comparator.comparingInt((String key) -> leafCost(compound.get(key))).thenComparing(Comparator.naturalOrder()));
+        children.sort(Comparator.naturalOrder());
+
+        for (String key : leaves) {
+            NbtElement value = compound.get(key);
+            steps.add(new Step(Step.LEAF, key, value.getType(), value, 0));
+        }
+        int maxDepth = depth;
+        for (String key : children) {
+            NbtCompound child = (NbtCompound) compound.get(key);
+            steps.add(new Step(Step.ENTER, key, NbtElement.COMPOUND_TYPE, null, child.getSize()));
+            maxDepth = Math.max(maxDepth, compile(child, steps, depth + 1));
+            steps.add(new Step(Step.EXIT, null, (byte) 0, null, 0));
+        }
+        return maxDepth;
+    }
+
+    private static int leafCost(NbtElement element) {
+        return switch (element.getType()) {
+            case NbtElement.STRING_TYPE -> 1;
+            case NbtElement.BYTE_ARRAY_TYPE, NbtElement.LIST_TYPE, NbtElement.INT_ARRAY_TYPE, NbtElement.LONG_ARRAY_TYPE -> 2;
+            default -> 0;
+        };
+    }
+
+    private record Step(int kind, String key, byte type, NbtElement value, int size) {
+        static final int SIZE = 0;
+        static final int LEAF = 1;
+        static final int ENTER = 2;
+        static final int EXIT = 3;
+    }
+}
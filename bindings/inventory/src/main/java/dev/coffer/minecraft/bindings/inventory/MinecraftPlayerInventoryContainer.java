@@ -1,19 +1,22 @@
 package dev.coffer.minecraft.bindings.inventory;
 
-import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
-import net.minecraft.nbt.StringNbtReader;
 import net.minecraft.registry.Registries;
-import net.minecraft.util.Identifier;
 import org.coffer.firstparty.authority.transferablevalue.port.MutationApplicationResult;
 import org.coffer.firstparty.authority.transferablevalue.port.ReceivabilityResult;
 import org.coffer.firstparty.authority.transferablevalue.port.RemovabilityResult;
@@ -26,10 +29,14 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
     public static final String VALUE_NOT_REMOVABLE = "minecraft.value.not_removable";
     public static final String VALUE_NOT_RECEIVABLE = "minecraft.value.not_receivable";
     public static final String CONTAINER_UNAVAILABLE = "minecraft.container.unavailable";
+    public static final String CONTAINER_OVERLAP = "minecraft.container.overlap";
 
     private final String containerId;
-    private final Region region;
+    private final List<Region> regions;
+    private final Optional<UUID> owner;
     private final Supplier<Optional<List<ItemStack>>> slotsResolver;
+    private final InventoryVersion version;
+    private final MinecraftInventoryValidationMemo memo;
 
     public MinecraftPlayerInventoryContainer(UUID playerId, Region region, List<ItemStack> slots) {
         this(containerId(playerId, region), region, () -> Optional.of(Objects.requireNonNull(slots, "slots")));
@@ -39,12 +46,34 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
             String containerId,
             Region region,
             Supplier<Optional<List<ItemStack>>> slotsResolver) {
+        this(
+                containerId,
+                List.of(Objects.requireNonNull(region, "region")),
+                Optional.empty(),
+                slotsResolver,
+                InventoryVersion.UNTRACKED,
+                MinecraftInventoryValidationMemo.disabled());
+    }
+
+    MinecraftPlayerInventoryContainer(
+            String containerId,
+            List<Region> regions,
+            Optional<UUID> owner,
+            Supplier<Optional<List<ItemStack>>> slotsResolver,
+            InventoryVersion version,
+            MinecraftInventoryValidationMemo memo) {
         if (containerId == null || containerId.isBlank()) {
             throw new IllegalArgumentException("containerId must not be null or blank");
         }
+        if (Objects.requireNonNull(regions, "regions").isEmpty()) {
+            throw new IllegalArgumentException("regions must not be empty");
+        }
         this.containerId = containerId;
-        this.region = Objects.requireNonNull(region, "region");
+        this.regions = List.copyOf(regions);
+        this.owner = Objects.requireNonNull(owner, "owner");
         this.slotsResolver = Objects.requireNonNull(slotsResolver, "slotsResolver");
+        this.version = Objects.requireNonNull(version, "version");
+        this.memo = Objects.requireNonNull(memo, "memo");
     }
 
     public String containerId() {
@@ -52,7 +81,40 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
     }
 
     public Region region() {
-        return region;
+        return regions.get(0);
+    }
+
+    public List<Region> regions() {
+        return regions;
+    }
+
+    public OptionalLong version() {
+        return version.current();
+    }
+
+    /**
+     * Folds item, count, and structural NBT of every slot; unlike a change counter, in-place edits move it too.
+     * It walks every slot, so callers cache it per drain and reuse the open {@link MinecraftStackNbtHashMemo}.
+     */
+    public static long contentHash(List<ItemStack> slots) {
+        Objects.requireNonNull(slots, "slots");
+
+        long hash = 1L;
+        for (ItemStack stack : slots) {
+            hash = 31L * hash + (stack.isEmpty()
+                    ? 0L
+                    : ((long) Registries.ITEM.getRawId(stack.getItem()) << 32 | stack.getCount())
+                            ^ memoizedNbtHash(stack));
+        }
+        return hash;
+    }
+
+    private static long memoizedNbtHash(ItemStack stack) {
+        if (!stack.hasNbt()) {
+            return 0L;
+        }
+        OptionalLong memoized = MinecraftStackNbtHashMemo.hash(stack);
+        return memoized.isPresent() ? memoized.getAsLong() : SimulationSlots.nbtHash(stack);
     }
 
     @Override
@@ -69,7 +131,17 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
             return new RemovabilityResult.Failed(VALUE_NOT_REMOVABLE);
         }
 
-        return canRemoveFrom(resolvedSlots.get(), requiredValues.get());
+        Optional<SingleKey> key = singleKey(SingleKey.REMOVE, requiredValues.get());
+        if (key.isPresent()) {
+            Optional<RemovabilityResult> reused = memo.find(key.get(), RemovabilityResult.class);
+            if (reused.isPresent()) {
+                return reused.get();
+            }
+        }
+
+        RemovabilityResult result = canRemoveFrom(index(resolvedSlots.get(), requiredValues.get()), requiredValues.get());
+        key.ifPresent(present -> memo.remember(present, result));
+        return result;
     }
 
     @Override
@@ -86,7 +158,18 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
             return new ReceivabilityResult.Failed(VALUE_NOT_RECEIVABLE);
         }
 
-        return canReceiveInto(resolvedSlots.get(), incomingValues.get());
+        Optional<SingleKey> key = singleKey(SingleKey.RECEIVE, incomingValues.get());
+        if (key.isPresent()) {
+            Optional<ReceivabilityResult> reused = memo.find(key.get(), ReceivabilityResult.class);
+            if (reused.isPresent()) {
+                return reused.get();
+            }
+        }
+
+        ReceivabilityResult result =
+                canReceiveInto(index(resolvedSlots.get(), incomingValues.get()), incomingValues.get());
+        key.ifPresent(present -> memo.remember(present, result));
+        return result;
     }
 
     @Override
@@ -94,132 +177,185 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
             TransferableValueContainer other,
             TransferableValueSet fromThis,
             TransferableValueSet fromOther) {
-        Objects.requireNonNull(other, "other");
-        Objects.requireNonNull(fromThis, "fromThis");
-        Objects.requireNonNull(fromOther, "fromOther");
+        return simulate(other, fromThis, fromOther).result();
+    }
+
+    @Override
+    public MutationApplicationResult applyAtomicSwap(
+            TransferableValueContainer other,
+            TransferableValueSet fromThis,
+            TransferableValueSet fromOther) {
+        SwapSimulation simulation = simulate(other, fromThis, fromOther);
+        if (simulation.result() instanceof SimulationResult.Failed failed) {
+            return new MutationApplicationResult.Failed(failed.reasonCode());
+        }
+        if (simulation.result() instanceof SimulationResult.Unknown unknown) {
+            return new MutationApplicationResult.Unknown(unknown.reasonCode());
+        }
 
         if (!(other instanceof MinecraftPlayerInventoryContainer otherContainer)) {
-            return new SimulationResult.Unknown(CONTAINER_UNAVAILABLE);
+            return new MutationApplicationResult.Unknown(CONTAINER_UNAVAILABLE);
         }
 
         Optional<List<ItemStack>> thisResolvedSlots = slotsResolver.get();
-        Optional<List<ItemStack>> otherResolvedSlots = otherContainer.slotsResolver.get();
+        Optional<List<ItemStack>> otherResolvedSlots =
+                sharesSlotsWith(otherContainer) ? thisResolvedSlots : otherContainer.slotsResolver.get();
         if (thisResolvedSlots == null || thisResolvedSlots.isEmpty()
                 || otherResolvedSlots == null || otherResolvedSlots.isEmpty()) {
-            return new SimulationResult.Unknown(CONTAINER_UNAVAILABLE);
+            return new MutationApplicationResult.Unknown(CONTAINER_UNAVAILABLE);
         }
 
+        MutationApplicationResult result;
+        Optional<SwapPlan> plan = simulation.plan();
+        if (plan.isPresent()
+                && !containerId.equals(otherContainer.containerId)
+                && plan.get().isCurrent(thisResolvedSlots.get(), otherResolvedSlots.get())) {
+            result = plan.get().commit(thisResolvedSlots.get(), otherResolvedSlots.get());
+        } else {
+            result = applyRevalidated(thisResolvedSlots.get(), otherResolvedSlots.get(), fromThis, fromOther);
+        }
+        recordMutation(otherContainer);
+        return result;
+    }
+
+    private MutationApplicationResult applyRevalidated(
+            List<ItemStack> thisSlots,
+            List<ItemStack> otherSlots,
+            TransferableValueSet fromThis,
+            TransferableValueSet fromOther) {
         Optional<Map<DescriptorKey, RequiredValue>> thisOutgoing = aggregate(fromThis);
         Optional<Map<DescriptorKey, RequiredValue>> otherOutgoing = aggregate(fromOther);
         if (thisOutgoing.isEmpty() || otherOutgoing.isEmpty()) {
-            return new SimulationResult.Failed(VALUE_NOT_REMOVABLE);
+            return new MutationApplicationResult.Unknown(VALUE_NOT_REMOVABLE);
         }
 
-        List<ItemStack> thisWorkingSlots = copySlots(thisResolvedSlots.get());
-        List<ItemStack> otherWorkingSlots = copySlots(otherResolvedSlots.get());
+        SlotIndex thisIndex = index(thisSlots, thisOutgoing.get(), otherOutgoing.get());
+        SlotIndex otherIndex = thisSlots == otherSlots
+                ? thisIndex
+                : index(otherSlots, thisOutgoing.get(), otherOutgoing.get());
 
-        RemovabilityResult thisRemoval = removeFrom(thisWorkingSlots, thisOutgoing.get());
-        if (thisRemoval instanceof RemovabilityResult.Failed failed) {
-            return new SimulationResult.Failed(failed.reasonCode());
-        }
-        if (thisRemoval instanceof RemovabilityResult.Unknown unknown) {
-            return new SimulationResult.Unknown(unknown.reasonCode());
+        Optional<Map<DescriptorKey, List<ItemStack>>> removedFromThis = removeStacksFrom(thisIndex, thisOutgoing.get());
+        if (removedFromThis.isEmpty()) {
+            return new MutationApplicationResult.Unknown(VALUE_NOT_REMOVABLE);
         }
 
-        RemovabilityResult otherRemoval = removeFrom(otherWorkingSlots, otherOutgoing.get());
-        if (otherRemoval instanceof RemovabilityResult.Failed failed) {
-            return new SimulationResult.Failed(failed.reasonCode());
-        }
-        if (otherRemoval instanceof RemovabilityResult.Unknown unknown) {
-            return new SimulationResult.Unknown(unknown.reasonCode());
+        Optional<Map<DescriptorKey, List<ItemStack>>> removedFromOther =
+                removeStacksFrom(otherIndex, otherOutgoing.get());
+        if (removedFromOther.isEmpty()) {
+            return new MutationApplicationResult.Unknown(VALUE_NOT_REMOVABLE);
         }
 
-        ReceivabilityResult otherReceive = insertInto(otherWorkingSlots, thisOutgoing.get());
-        if (otherReceive instanceof ReceivabilityResult.Failed failed) {
-            return new SimulationResult.Failed(failed.reasonCode());
-        }
-        if (otherReceive instanceof ReceivabilityResult.Unknown unknown) {
-            return new SimulationResult.Unknown(unknown.reasonCode());
+        if (!insertStacksInto(otherIndex, removedFromThis.get())) {
+            return new MutationApplicationResult.Unknown(VALUE_NOT_RECEIVABLE);
         }
 
-        ReceivabilityResult thisReceive = insertInto(thisWorkingSlots, otherOutgoing.get());
-        if (thisReceive instanceof ReceivabilityResult.Failed failed) {
-            return new SimulationResult.Failed(failed.reasonCode());
-        }
-        if (thisReceive instanceof ReceivabilityResult.Unknown unknown) {
-            return new SimulationResult.Unknown(unknown.reasonCode());
+        if (!insertStacksInto(thisIndex, removedFromOther.get())) {
+            return new MutationApplicationResult.Unknown(VALUE_NOT_RECEIVABLE);
         }
 
-        return new SimulationResult.Success();
+        return new MutationApplicationResult.Success();
     }
 
-    @Override
-    public MutationApplicationResult applyAtomicSwap(
+    private SwapSimulation simulate(
             TransferableValueContainer other,
             TransferableValueSet fromThis,
             TransferableValueSet fromOther) {
-        SimulationResult simulation = simulateAtomicSwap(other, fromThis, fromOther);
-        if (simulation instanceof SimulationResult.Failed failed) {
-            return new MutationApplicationResult.Failed(failed.reasonCode());
-        }
-        if (simulation instanceof SimulationResult.Unknown unknown) {
-            return new MutationApplicationResult.Unknown(unknown.reasonCode());
-        }
+        Objects.requireNonNull(other, "other");
+        Objects.requireNonNull(fromThis, "fromThis");
+        Objects.requireNonNull(fromOther, "fromOther");
 
         if (!(other instanceof MinecraftPlayerInventoryContainer otherContainer)) {
-            return new MutationApplicationResult.Unknown(CONTAINER_UNAVAILABLE);
+            return SwapSimulation.withoutPlan(new SimulationResult.Unknown(CONTAINER_UNAVAILABLE));
+        }
+        if (overlaps(otherContainer)) {
+            return SwapSimulation.withoutPlan(new SimulationResult.Failed(CONTAINER_OVERLAP));
         }
 
         Optional<List<ItemStack>> thisResolvedSlots = slotsResolver.get();
-        Optional<List<ItemStack>> otherResolvedSlots = otherContainer.slotsResolver.get();
+        Optional<List<ItemStack>> otherResolvedSlots =
+                sharesSlotsWith(otherContainer) ? thisResolvedSlots : otherContainer.slotsResolver.get();
         if (thisResolvedSlots == null || thisResolvedSlots.isEmpty()
                 || otherResolvedSlots == null || otherResolvedSlots.isEmpty()) {
-            return new MutationApplicationResult.Unknown(CONTAINER_UNAVAILABLE);
+            return SwapSimulation.withoutPlan(new SimulationResult.Unknown(CONTAINER_UNAVAILABLE));
         }
 
         Optional<Map<DescriptorKey, RequiredValue>> thisOutgoing = aggregate(fromThis);
         Optional<Map<DescriptorKey, RequiredValue>> otherOutgoing = aggregate(fromOther);
         if (thisOutgoing.isEmpty() || otherOutgoing.isEmpty()) {
-            return new MutationApplicationResult.Unknown(VALUE_NOT_REMOVABLE);
+            return SwapSimulation.withoutPlan(new SimulationResult.Failed(VALUE_NOT_REMOVABLE));
         }
 
-        Optional<List<ItemStack>> removedFromThis = removeStacksFrom(thisResolvedSlots.get(), thisOutgoing.get());
-        if (removedFromThis.isEmpty()) {
-            return new MutationApplicationResult.Unknown(VALUE_NOT_REMOVABLE);
+        Optional<SwapKey> key = swapKey(otherContainer, thisOutgoing.get(), otherOutgoing.get());
+        if (key.isPresent()) {
+            Optional<SwapSimulation> reused = memo.find(key.get(), SwapSimulation.class);
+            if (reused.isPresent()) {
+                return reused.get();
+            }
         }
 
-        Optional<List<ItemStack>> removedFromOther = removeStacksFrom(otherResolvedSlots.get(), otherOutgoing.get());
-        if (removedFromOther.isEmpty()) {
-            return new MutationApplicationResult.Unknown(VALUE_NOT_REMOVABLE);
-        }
+        SimulationSlots thisWorkingSlots = new SimulationSlots(thisResolvedSlots.get());
+        SimulationSlots otherWorkingSlots = thisResolvedSlots.get() == otherResolvedSlots.get()
+                ? thisWorkingSlots
+                : new SimulationSlots(otherResolvedSlots.get());
+        SwapSimulation simulation =
+                simulateOn(thisWorkingSlots, otherWorkingSlots, thisOutgoing.get(), otherOutgoing.get());
+        key.ifPresent(present -> memo.remember(present, simulation));
+        return simulation;
+    }
 
-        if (!insertStacksInto(otherResolvedSlots.get(), removedFromThis.get())) {
-            return new MutationApplicationResult.Unknown(VALUE_NOT_RECEIVABLE);
+    private SwapSimulation simulateOn(
+            SimulationSlots thisWorkingSlots,
+            SimulationSlots otherWorkingSlots,
+            Map<DescriptorKey, RequiredValue> thisOutgoing,
+            Map<DescriptorKey, RequiredValue> otherOutgoing) {
+        SlotIndex thisIndex = index(thisWorkingSlots, thisOutgoing, otherOutgoing);
+        SlotIndex otherIndex = thisWorkingSlots == otherWorkingSlots
+                ? thisIndex
+                : index(otherWorkingSlots, thisOutgoing, otherOutgoing);
+
+        RemovabilityResult thisRemoval = removeFrom(thisWorkingSlots, thisIndex, thisOutgoing);
+        if (thisRemoval instanceof RemovabilityResult.Failed failed) {
+            return SwapSimulation.withoutPlan(new SimulationResult.Failed(failed.reasonCode()));
+        }
+        if (thisRemoval instanceof RemovabilityResult.Unknown unknown) {
+            return SwapSimulation.withoutPlan(new SimulationResult.Unknown(unknown.reasonCode()));
         }
 
-        if (!insertStacksInto(thisResolvedSlots.get(), removedFromOther.get())) {
-            return new MutationApplicationResult.Unknown(VALUE_NOT_RECEIVABLE);
+        RemovabilityResult otherRemoval = removeFrom(otherWorkingSlots, otherIndex, otherOutgoing);
+        if (otherRemoval instanceof RemovabilityResult.Failed failed) {
+            return SwapSimulation.withoutPlan(new SimulationResult.Failed(failed.reasonCode()));
+        }
+        if (otherRemoval instanceof RemovabilityResult.Unknown unknown) {
+            return SwapSimulation.withoutPlan(new SimulationResult.Unknown(unknown.reasonCode()));
         }
 
-        return new MutationApplicationResult.Success();
-    }
+        ReceivabilityResult otherReceive = insertInto(otherWorkingSlots, otherIndex, thisOutgoing);
+        if (otherReceive instanceof ReceivabilityResult.Failed failed) {
+            return SwapSimulation.withoutPlan(new SimulationResult.Failed(failed.reasonCode()));
+        }
+        if (otherReceive instanceof ReceivabilityResult.Unknown unknown) {
+            return SwapSimulation.withoutPlan(new SimulationResult.Unknown(unknown.reasonCode()));
+        }
 
-    private static long matchingQuantity(List<ItemStack> slots, MinecraftItemDescriptor descriptor) {
-        long total = 0;
-        for (ItemStack stack : slots) {
-            if (MinecraftItemMatcher.matches(stack, descriptor)) {
-                total += stack.getCount();
-            }
+        ReceivabilityResult thisReceive = insertInto(thisWorkingSlots, thisIndex, otherOutgoing);
+        if (thisReceive instanceof ReceivabilityResult.Failed failed) {
+            return SwapSimulation.withoutPlan(new SimulationResult.Failed(failed.reasonCode()));
         }
-        return total;
+        if (thisReceive instanceof ReceivabilityResult.Unknown unknown) {
+            return SwapSimulation.withoutPlan(new SimulationResult.Unknown(unknown.reasonCode()));
+        }
+
+        return new SwapSimulation(
+                new SimulationResult.Success(),
+                Optional.of(new SwapPlan(thisWorkingSlots, otherWorkingSlots)));
     }
 
     private static RemovabilityResult canRemoveFrom(
-            List<ItemStack> slots,
+            SlotIndex index,
             Map<DescriptorKey, RequiredValue> requiredValues) {
-        for (RequiredValue requiredValue : requiredValues.values()) {
-            long available = matchingQuantity(slots, requiredValue.descriptor());
-            if (available < requiredValue.quantity()) {
+        for (Map.Entry<DescriptorKey, RequiredValue> requiredValue : requiredValues.entrySet()) {
+            long available = index.matchingQuantity(requiredValue.getKey());
+            if (available < requiredValue.getValue().quantity()) {
                 return new RemovabilityResult.Failed(VALUE_NOT_REMOVABLE);
             }
         }
@@ -228,16 +364,16 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
     }
 
     private static ReceivabilityResult canReceiveInto(
-            List<ItemStack> slots,
+            SlotIndex index,
             Map<DescriptorKey, RequiredValue> incomingValues) {
-        long emptySlots = emptySlotCount(slots);
-        for (RequiredValue incomingValue : incomingValues.values()) {
-            Optional<Integer> maxCount = maxCountForDescriptor(incomingValue.descriptor());
+        long emptySlots = index.emptySlotCount();
+        for (Map.Entry<DescriptorKey, RequiredValue> incomingValue : incomingValues.entrySet()) {
+            Optional<Integer> maxCount = maxCountForDescriptor(incomingValue.getValue().descriptor());
             if (maxCount.isEmpty()) {
                 return new ReceivabilityResult.Failed(VALUE_NOT_RECEIVABLE);
             }
 
-            long remaining = incomingValue.quantity() - compatiblePartialCapacity(slots, incomingValue.descriptor());
+            long remaining = incomingValue.getValue().quantity() - index.partialCapacity(incomingValue.getKey());
             if (remaining <= 0) {
                 continue;
             }
@@ -253,24 +389,23 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
     }
 
     private static RemovabilityResult removeFrom(
-            List<ItemStack> slots,
+            SimulationSlots slots,
+            SlotIndex index,
             Map<DescriptorKey, RequiredValue> outgoingValues) {
-        RemovabilityResult canRemove = canRemoveFrom(slots, outgoingValues);
+        RemovabilityResult canRemove = canRemoveFrom(index, outgoingValues);
         if (!(canRemove instanceof RemovabilityResult.Success)) {
             return canRemove;
         }
 
-        for (RequiredValue outgoingValue : outgoingValues.values()) {
-            long remaining = outgoingValue.quantity();
-            for (ItemStack stack : slots) {
-                if (remaining <= 0) {
-                    break;
+        for (Map.Entry<DescriptorKey, RequiredValue> outgoingValue : outgoingValues.entrySet()) {
+            long remaining = outgoingValue.getValue().quantity();
+            for (int slot = index.nextMatchingSlot(outgoingValue.getKey(), 0);
+                    slot >= 0 && remaining > 0;
+                    slot = index.nextMatchingSlot(outgoingValue.getKey(), slot + 1)) {
+                int removed = (int) Math.min(remaining, slots.get(slot).getCount());
+                if (slots.drain(slot, removed, outgoingValue.getKey())) {
+                    index.slotEmptied(slot);
                 }
-                if (!MinecraftItemMatcher.matches(stack, outgoingValue.descriptor())) {
-                    continue;
-                }
-                int removed = (int) Math.min(remaining, stack.getCount());
-                stack.decrement(removed);
                 remaining -= removed;
             }
         }
@@ -279,73 +414,86 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
     }
 
     private static ReceivabilityResult insertInto(
-            List<ItemStack> slots,
+            SimulationSlots slots,
+            SlotIndex index,
             Map<DescriptorKey, RequiredValue> incomingValues) {
-        ReceivabilityResult canReceive = canReceiveInto(slots, incomingValues);
+        ReceivabilityResult canReceive = canReceiveInto(index, incomingValues);
         if (!(canReceive instanceof ReceivabilityResult.Success)) {
             return canReceive;
         }
 
-        for (RequiredValue incomingValue : incomingValues.values()) {
-            long remaining = incomingValue.quantity();
+        for (Map.Entry<DescriptorKey, RequiredValue> incomingValue : incomingValues.entrySet()) {
+            long remaining = incomingValue.getValue().quantity();
 
-            for (ItemStack stack : slots) {
-                if (remaining <= 0) {
-                    break;
-                }
-                if (!MinecraftItemMatcher.matches(stack, incomingValue.descriptor())) {
-                    continue;
-                }
+            for (int slot = index.nextMatchingSlot(incomingValue.getKey(), 0);
+                    slot >= 0 && remaining > 0;
+                    slot = index.nextMatchingSlot(incomingValue.getKey(), slot + 1)) {
+                ItemStack stack = slots.get(slot);
                 int accepted = (int) Math.min(remaining, stack.getMaxCount() - stack.getCount());
-                stack.increment(accepted);
+                if (accepted > 0) {
+                    slots.merge(slot, accepted);
+                }
                 remaining -= accepted;
             }
 
-            for (int index = 0; index < slots.size() && remaining > 0; index++) {
-                if (!slots.get(index).isEmpty()) {
-                    continue;
-                }
-                Optional<ItemStack> stack = stackFrom(incomingValue.descriptor());
-                if (stack.isEmpty()) {
-                    return new ReceivabilityResult.Failed(VALUE_NOT_RECEIVABLE);
+            if (remaining <= 0) {
+                continue;
+            }
+            Optional<ItemStack> fullStack = stackFrom(incomingValue.getValue().descriptor());
+            if (fullStack.isEmpty()) {
+                return new ReceivabilityResult.Failed(VALUE_NOT_RECEIVABLE);
+            }
+            int maxCount = fullStack.get().getMaxCount();
+            long fullStacks = remaining / maxCount;
+            int remainder = (int) (remaining % maxCount);
+            fullStack.get().setCount(maxCount);
+            for (int slot = index.nextEmptySlot(0); slot >= 0 && remaining > 0; slot = index.nextEmptySlot(slot + 1)) {
+                if (fullStacks > 0) {
+                    slots.fill(slot, fullStack.get(), incomingValue.getKey());
+                    fullStacks--;
+                    remaining -= maxCount;
+                } else {
+                    slots.fill(slot, fullStack.get().copyWithCount(remainder), incomingValue.getKey());
+                    remaining -= remainder;
                 }
-                int accepted = (int) Math.min(remaining, stack.get().getMaxCount());
-                stack.get().setCount(accepted);
-                slots.set(index, stack.get());
-                remaining -= accepted;
+                index.slotFilled(slot);
             }
         }
 
         return new ReceivabilityResult.Success();
     }
 
-    private static Optional<List<ItemStack>> removeStacksFrom(
-            List<ItemStack> slots,
+    private static Optional<Map<DescriptorKey, List<ItemStack>>> removeStacksFrom(
+            SlotIndex index,
             Map<DescriptorKey, RequiredValue> outgoingValues) {
-        if (!(canRemoveFrom(slots, outgoingValues) instanceof RemovabilityResult.Success)) {
+        if (!(canRemoveFrom(index, outgoingValues) instanceof RemovabilityResult.Success)) {
             return Optional.empty();
         }
 
-        List<ItemStack> removedStacks = new ArrayList<>();
+        List<ItemStack> slots = index.slots();
+        Map<DescriptorKey, List<ItemStack>> removedStacks = new LinkedHashMap<>();
         try {
-            for (RequiredValue outgoingValue : outgoingValues.values()) {
-                long remaining = outgoingValue.quantity();
-                for (int index = 0; index < slots.size() && remaining > 0; index++) {
-                    ItemStack stack = slots.get(index);
-                    if (!MinecraftItemMatcher.matches(stack, outgoingValue.descriptor())) {
-                        continue;
-                    }
+            for (Map.Entry<DescriptorKey, RequiredValue> outgoingValue : outgoingValues.entrySet()) {
+                List<ItemStack> removedForValue = new ArrayList<>();
+                long remaining = outgoingValue.getValue().quantity();
+                for (int slot = index.nextMatchingSlot(outgoingValue.getKey(), 0);
+                        slot >= 0 && remaining > 0;
+                        slot = index.nextMatchingSlot(outgoingValue.getKey(), slot + 1)) {
+                    ItemStack stack = slots.get(slot);
                     int removed = (int) Math.min(remaining, stack.getCount());
-                    ItemStack removedStack = stack.split(removed);
-                    if (stack.isEmpty()) {
-                        slots.set(index, ItemStack.EMPTY);
+                    if (removed == stack.getCount()) {
+                        slots.set(slot, ItemStack.EMPTY);
+                        index.slotEmptied(slot);
+                        removedForValue.add(stack);
+                    } else {
+                        removedForValue.add(stack.split(removed));
                     }
-                    removedStacks.add(removedStack);
                     remaining -= removed;
                 }
                 if (remaining > 0) {
                     return Optional.empty();
                 }
+                removedStacks.put(outgoingValue.getKey(), removedForValue);
             }
         } catch (RuntimeException exception) {
             return Optional.empty();
@@ -354,34 +502,50 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
         return Optional.of(removedStacks);
     }
 
-    private static boolean insertStacksInto(List<ItemStack> slots, List<ItemStack> incomingStacks) {
+    private static boolean insertStacksInto(SlotIndex index, Map<DescriptorKey, List<ItemStack>> incomingStacks) {
+        List<ItemStack> slots = index.slots();
         try {
-            for (ItemStack incomingStack : incomingStacks) {
-                ItemStack remainingStack = incomingStack.copy();
+            for (Map.Entry<DescriptorKey, List<ItemStack>> incomingValue : incomingStacks.entrySet()) {
+                List<ItemStack> detachedStacks = incomingValue.getValue();
+                if (detachedStacks.isEmpty()) {
+                    continue;
+                }
+                ItemStack template = detachedStacks.get(0);
+                long remaining = 0;
+                for (ItemStack detachedStack : detachedStacks) {
+                    remaining += detachedStack.getCount();
+                }
 
-                for (ItemStack stack : slots) {
-                    if (remainingStack.isEmpty()) {
-                        break;
-                    }
-                    if (!canMerge(stack, remainingStack)) {
+                for (int slot = index.nextMatchingSlot(incomingValue.getKey(), 0);
+                        slot >= 0 && remaining > 0;
+                        slot = index.nextMatchingSlot(incomingValue.getKey(), slot + 1)) {
+                    ItemStack stack = slots.get(slot);
+                    if (!canMerge(stack, template)) {
                         continue;
                     }
-                    int accepted = Math.min(remainingStack.getCount(), stack.getMaxCount() - stack.getCount());
+                    int accepted = (int) Math.min(remaining, stack.getMaxCount() - stack.getCount());
                     stack.increment(accepted);
-                    remainingStack.decrement(accepted);
+                    remaining -= accepted;
                 }
 
-                for (int index = 0; index < slots.size() && !remainingStack.isEmpty(); index++) {
-                    if (!slots.get(index).isEmpty()) {
-                        continue;
+                int maxCount = template.getMaxCount();
+                ArrayDeque<ItemStack> fullStacks = new ArrayDeque<>();
+                for (ItemStack detachedStack : detachedStacks) {
+                    if (detachedStack.getCount() == maxCount) {
+                        fullStacks.add(detachedStack);
                     }
-                    int accepted = Math.min(remainingStack.getCount(), remainingStack.getMaxCount());
-                    ItemStack inserted = remainingStack.copyWithCount(accepted);
-                    slots.set(index, inserted);
-                    remainingStack.decrement(accepted);
+                }
+                for (int slot = index.nextEmptySlot(0); slot >= 0 && remaining > 0; slot = index.nextEmptySlot(slot + 1)) {
+                    int accepted = (int) Math.min(remaining, maxCount);
+                    ItemStack inserted = accepted == maxCount && !fullStacks.isEmpty()
+                            ? fullStacks.poll()
+                            : template.copyWithCount(accepted);
+                    slots.set(slot, inserted);
+                    index.slotFilled(slot);
+                    remaining -= accepted;
                 }
 
-                if (!remainingStack.isEmpty()) {
+                if (remaining > 0) {
                     return false;
                 }
             }
@@ -418,66 +582,27 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
         return Optional.of(aggregatedValues);
     }
 
-    private static long compatiblePartialCapacity(List<ItemStack> slots, MinecraftItemDescriptor descriptor) {
-        long capacity = 0;
-        for (ItemStack stack : slots) {
-            if (MinecraftItemMatcher.matches(stack, descriptor)) {
-                capacity += Math.max(0, stack.getMaxCount() - stack.getCount());
-            }
-        }
-        return capacity;
-    }
-
-    private static long emptySlotCount(List<ItemStack> slots) {
-        long emptySlots = 0;
-        for (ItemStack stack : slots) {
-            if (stack.isEmpty()) {
-                emptySlots++;
-            }
-        }
-        return emptySlots;
-    }
-
     private static Optional<Integer> maxCountForDescriptor(MinecraftItemDescriptor descriptor) {
-        Optional<ItemStack> stack = stackFrom(descriptor);
-        return stack.map(ItemStack::getMaxCount);
+        return descriptor.compiled().map(MinecraftCompiledItem::maxCount);
     }
 
     private static Optional<ItemStack> stackFrom(MinecraftItemDescriptor descriptor) {
-        if (descriptor.nbtPayload().isPresent()) {
-            try {
-                StringNbtReader.parse(descriptor.nbtPayload().orElseThrow());
-            } catch (CommandSyntaxException exception) {
-                return Optional.empty();
-            }
-        }
-
-        Identifier id = Identifier.tryParse(descriptor.itemId());
-        if (id == null || !Registries.ITEM.containsId(id)) {
-            return Optional.empty();
-        }
-        ItemStack representative = new ItemStack(Registries.ITEM.get(id));
-        if (representative.isEmpty()) {
-            return Optional.empty();
-        }
-        if (descriptor.nbtPayload().isPresent()) {
-            try {
-                representative.setNbt(StringNbtReader.parse(descriptor.nbtPayload().orElseThrow()));
-            } catch (CommandSyntaxException exception) {
-                return Optional.empty();
-            }
-        }
-        return Optional.of(representative);
+        return descriptor.compiled().map(MinecraftCompiledItem::newStack);
     }
 
     private static long divideRoundingUp(long value, int divisor) {
         return (value + divisor - 1) / divisor;
     }
 
-    private static List<ItemStack> copySlots(List<ItemStack> slots) {
-        return slots.stream()
-                .map(ItemStack::copy)
-                .collect(Collectors.toCollection(ArrayList::new));
+    private boolean sharesSlotsWith(MinecraftPlayerInventoryContainer other) {
+        return owner.isPresent() && owner.equals(other.owner) && regions.equals(other.regions);
+    }
+
+    private boolean overlaps(MinecraftPlayerInventoryContainer other) {
+        return owner.isPresent()
+                && owner.equals(other.owner)
+                && !regions.equals(other.regions)
+                && !Collections.disjoint(regions, other.regions);
     }
 
     private static String containerId(UUID playerId, Region region) {
@@ -503,9 +628,385 @@ public final class MinecraftPlayerInventoryContainer implements TransferableValu
         }
     }
 
-    private record DescriptorKey(String itemId, Optional<String> nbtPayload) {
+    @SafeVarargs
+    private SlotIndex index(List<ItemStack> slots, Map<DescriptorKey, RequiredValue>... valueGroups) {
+        memo.recordSlotScan();
+        return SlotIndex.build(slots, valueGroups);
+    }
+
+    private Optional<SingleKey> singleKey(String phase, Map<DescriptorKey, RequiredValue> values) {
+        OptionalLong currentVersion = version.current();
+        if (currentVersion.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(new SingleKey(phase, containerId, currentVersion.getAsLong(), signature(values)));
+    }
+
+    private Optional<SwapKey> swapKey(
+            MinecraftPlayerInventoryContainer otherContainer,
+            Map<DescriptorKey, RequiredValue> thisOutgoing,
+            Map<DescriptorKey, RequiredValue> otherOutgoing) {
+        OptionalLong thisVersion = version.current();
+        OptionalLong otherVersion = otherContainer.version.current();
+        if (thisVersion.isEmpty() || otherVersion.isEmpty() || otherContainer.memo != memo) {
+            return Optional.empty();
+        }
+        return Optional.of(new SwapKey(
+                containerId,
+                thisVersion.getAsLong(),
+                otherContainer.containerId,
+                otherVersion.getAsLong(),
+                signature(thisOutgoing),
+                signature(otherOutgoing)));
+    }
+
+    private void recordMutation(MinecraftPlayerInventoryContainer otherContainer) {
+        memo.invalidate(containerId);
+        memo.invalidate(otherContainer.containerId);
+        if (otherContainer.memo != memo) {
+            otherContainer.memo.invalidate(containerId);
+            otherContainer.memo.invalidate(otherContainer.containerId);
+        }
+        version.mutated();
+        otherContainer.version.mutated();
+    }
+
+    private static Map<DescriptorKey, Long> signature(Map<DescriptorKey, RequiredValue> values) {
+        Map<DescriptorKey, Long> signature = new HashMap<>();
+        values.forEach((key, value) -> signature.put(key, value.quantity()));
+        return Map.copyOf(signature);
+    }
+
+    interface InventoryVersion {
+        InventoryVersion UNTRACKED = new InventoryVersion() {
+            @Override
+            public OptionalLong current() {
+                return OptionalLong.empty();
+            }
+
+            @Override
+            public void mutated() {
+            }
+        };
+
+        OptionalLong current();
+
+        void mutated();
+    }
+
+    private record SingleKey(String phase, String containerId, long version, Map<DescriptorKey, Long> values)
+            implements MinecraftInventoryValidationMemo.Key {
+        static final String REMOVE = "remove";
+        static final String RECEIVE = "receive";
+
+        @Override
+        public boolean involves(String candidateContainerId) {
+            return containerId.equals(candidateContainerId);
+        }
+    }
+
+    private record SwapKey(
+            String thisContainerId,
+            long thisVersion,
+            String otherContainerId,
+            long otherVersion,
+            Map<DescriptorKey, Long> thisOutgoing,
+            Map<DescriptorKey, Long> otherOutgoing) implements MinecraftInventoryValidationMemo.Key {
+        @Override
+        public boolean involves(String candidateContainerId) {
+            return thisContainerId.equals(candidateContainerId) || otherContainerId.equals(candidateContainerId);
+        }
+    }
+
+    private static final class SimulationSlots extends AbstractList<ItemStack> {
+        private final List<ItemStack> liveSlots;
+        private final ItemStack[] overlay;
+        private final Item[] expectedItems;
+        private final int[] expectedCounts;
+        private final long[] expectedNbtHashes;
+        private final BitSet touchedSlots;
+        private final BitSet sharedSlots;
+        private final List<SlotChange> changes = new ArrayList<>();
+
+        SimulationSlots(List<ItemStack> liveSlots) {
+            this.liveSlots = liveSlots;
+            this.overlay = new ItemStack[liveSlots.size()];
+            this.expectedItems = new Item[liveSlots.size()];
+            this.expectedCounts = new int[liveSlots.size()];
+            this.expectedNbtHashes = new long[liveSlots.size()];
+            this.touchedSlots = new BitSet(liveSlots.size());
+            this.sharedSlots = new BitSet(liveSlots.size());
+        }
+
+        @Override
+        public ItemStack get(int slot) {
+            ItemStack shadowed = overlay[slot];
+            return shadowed != null ? shadowed : liveSlots.get(slot);
+        }
+
+        @Override
+        public int size() {
+            return overlay.length;
+        }
+
+        boolean drain(int slot, int count, DescriptorKey key) {
+            touch(slot);
+            changes.add(new SlotChange.Removal(slot, count, key));
+            ItemStack stack = get(slot);
+            if (count >= stack.getCount()) {
+                overlay[slot] = ItemStack.EMPTY;
+                return true;
+            }
+            writable(slot).decrement(count);
+            return false;
+        }
+
+        void merge(int slot, int count) {
+            touch(slot);
+            changes.add(new SlotChange.Merge(slot, count));
+            writable(slot).increment(count);
+        }
+
+        void fill(int slot, ItemStack stack, DescriptorKey key) {
+            touch(slot);
+            changes.add(new SlotChange.Fill(slot, stack.getCount(), key));
+            overlay[slot] = stack;
+            sharedSlots.set(slot);
+        }
+
+        /** Compares contents rather than identity, so a plan simulated on a snapshot copy commits onto equal live slots. */
+        boolean isCurrent(List<ItemStack> slots) {
+            if (slots.size() != liveSlots.size()) {
+                return false;
+            }
+            for (int slot = touchedSlots.nextSetBit(0); slot >= 0; slot = touchedSlots.nextSetBit(slot + 1)) {
+                ItemStack current = slots.get(slot);
+                if (current.getItem() != expectedItems[slot]
+                        || current.getCount() != expectedCounts[slot]
+                        || nbtHash(current) != expectedNbtHashes[slot]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void commitRemovals(List<ItemStack> slots, Map<DescriptorKey, ArrayDeque<ItemStack>> detachedStacks) {
+            for (SlotChange change : changes) {
+                if (!(change instanceof SlotChange.Removal removal)) {
+                    continue;
+                }
+                ItemStack stack = slots.get(removal.slot());
+                ItemStack detached;
+                if (removal.count() >= stack.getCount()) {
+                    slots.set(removal.slot(), ItemStack.EMPTY);
+                    detached = stack;
+                } else {
+                    detached = stack.split(removal.count());
+                }
+                detachedStacks.computeIfAbsent(removal.key(), ignored -> new ArrayDeque<>()).add(detached);
+            }
+        }
+
+        void commitInsertions(List<ItemStack> slots, Map<DescriptorKey, ArrayDeque<ItemStack>> detachedStacks) {
+            for (SlotChange change : changes) {
+                if (change instanceof SlotChange.Merge merge) {
+                    slots.get(merge.slot()).increment(merge.count());
+                } else if (change instanceof SlotChange.Fill fill) {
+                    slots.set(fill.slot(), placedStack(fill, detachedStacks.get(fill.key())));
+                }
+            }
+        }
+
+        private ItemStack placedStack(SlotChange.Fill fill, ArrayDeque<ItemStack> detachedStacks) {
+            if (detachedStacks == null || detachedStacks.isEmpty()) {
+                return overlay[fill.slot()].copyWithCount(fill.count());
+            }
+            if (detachedStacks.peek().getCount() == fill.count()) {
+                return detachedStacks.poll();
+            }
+            return detachedStacks.peek().copyWithCount(fill.count());
+        }
+
+        private ItemStack writable(int slot) {
+            ItemStack shadowed = overlay[slot];
+            if (shadowed == null || sharedSlots.get(slot)) {
+                shadowed = get(slot).copy();
+                overlay[slot] = shadowed;
+                sharedSlots.clear(slot);
+            }
+            return shadowed;
+        }
+
+        private void touch(int slot) {
+            if (!touchedSlots.get(slot)) {
+                ItemStack live = liveSlots.get(slot);
+                touchedSlots.set(slot);
+                expectedItems[slot] = live.getItem();
+                expectedCounts[slot] = live.getCount();
+                expectedNbtHashes[slot] = nbtHash(live);
+            }
+        }
+
+        private static long nbtHash(ItemStack stack) {
+            return stack.hasNbt() ? MinecraftNbtCanonicalForm.structuralHash(stack.getNbt()) : 0L;
+        }
+    }
+
+    private sealed interface SlotChange permits SlotChange.Removal, SlotChange.Merge, SlotChange.Fill {
+        int slot();
+
+        record Removal(int slot, int count, DescriptorKey key) implements SlotChange {
+        }
+
+        record Merge(int slot, int count) implements SlotChange {
+        }
+
+        record Fill(int slot, int count, DescriptorKey key) implements SlotChange {
+        }
+    }
+
+    private record SwapPlan(SimulationSlots thisSlots, SimulationSlots otherSlots) {
+        boolean isCurrent(List<ItemStack> thisLiveSlots, List<ItemStack> otherLiveSlots) {
+            return thisLiveSlots != otherLiveSlots
+                    && thisSlots.isCurrent(thisLiveSlots)
+                    && otherSlots.isCurrent(otherLiveSlots);
+        }
+
+        MutationApplicationResult commit(List<ItemStack> thisLiveSlots, List<ItemStack> otherLiveSlots) {
+            Map<DescriptorKey, ArrayDeque<ItemStack>> detachedStacks = new HashMap<>();
+            try {
+                if (thisSlots == otherSlots) {
+                    thisSlots.commitRemovals(thisLiveSlots, detachedStacks);
+                    thisSlots.commitInsertions(thisLiveSlots, detachedStacks);
+                    return new MutationApplicationResult.Success();
+                }
+                thisSlots.commitRemovals(thisLiveSlots, detachedStacks);
+                otherSlots.commitRemovals(otherLiveSlots, detachedStacks);
+                otherSlots.commitInsertions(otherLiveSlots, detachedStacks);
+                thisSlots.commitInsertions(thisLiveSlots, detachedStacks);
+            } catch (RuntimeException exception) {
+                return new MutationApplicationResult.Unknown(VALUE_NOT_RECEIVABLE);
+            }
+            return new MutationApplicationResult.Success();
+        }
+    }
+
+    private record SwapSimulation(SimulationResult result, Optional<SwapPlan> plan) {
+        static SwapSimulation withoutPlan(SimulationResult result) {
+            return new SwapSimulation(result, Optional.empty());
+        }
+    }
+
+    private static final class SlotIndex {
+        private final List<ItemStack> slots;
+        private final Map<DescriptorKey, Integer> positions;
+        private final MinecraftItemMatcher.Patterns patterns;
+        private final MinecraftItemMatcher.Scan scan;
+        private final BitSet[] matchingSlots;
+        private final BitSet emptySlots;
+        private boolean scanTotalsCurrent = true;
+
+        private SlotIndex(
+                List<ItemStack> slots,
+                Map<DescriptorKey, Integer> positions,
+                MinecraftItemMatcher.Patterns patterns) {
+            this.slots = slots;
+            this.positions = positions;
+            this.patterns = patterns;
+            this.scan = patterns.scan(slots);
+            this.matchingSlots = scan.matchingSlots();
+            this.emptySlots = scan.emptySlots();
+        }
+
+        @SafeVarargs
+        static SlotIndex build(List<ItemStack> slots, Map<DescriptorKey, RequiredValue>... valueGroups) {
+            Map<DescriptorKey, Integer> positions = new HashMap<>();
+            List<MinecraftItemDescriptor> descriptors = new ArrayList<>();
+            for (Map<DescriptorKey, RequiredValue> values : valueGroups) {
+                values.forEach((key, value) -> {
+                    if (positions.putIfAbsent(key, descriptors.size()) == null) {
+                        descriptors.add(value.descriptor());
+                    }
+                });
+            }
+            return new SlotIndex(slots, positions, MinecraftItemMatcher.compile(descriptors));
+        }
+
+        List<ItemStack> slots() {
+            return slots;
+        }
+
+        long matchingQuantity(DescriptorKey key) {
+            int position = positions.get(key);
+            if (scanTotalsCurrent) {
+                return scan.matchingQuantity(position);
+            }
+            long total = 0;
+            BitSet matching = matchingSlots[position];
+            for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+                total += slots.get(slot).getCount();
+            }
+            return total;
+        }
+
+        long partialCapacity(DescriptorKey key) {
+            int position = positions.get(key);
+            if (scanTotalsCurrent) {
+                return scan.partialCapacity(position);
+            }
+            long capacity = 0;
+            BitSet matching = matchingSlots[position];
+            for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+                ItemStack stack = slots.get(slot);
+                capacity += Math.max(0, stack.getMaxCount() - stack.getCount());
+            }
+            return capacity;
+        }
+
+        long emptySlotCount() {
+            return emptySlots.cardinality();
+        }
+
+        // Slots are only ever changed at positions handed out here, so the scan totals hold until then.
+        int nextMatchingSlot(DescriptorKey key, int fromSlot) {
+            scanTotalsCurrent = false;
+            return matchingSlots[positions.get(key)].nextSetBit(fromSlot);
+        }
+
+        int nextEmptySlot(int fromSlot) {
+            scanTotalsCurrent = false;
+            return emptySlots.nextSetBit(fromSlot);
+        }
+
+        void slotEmptied(int slot) {
+            for (BitSet matching : matchingSlots) {
+                matching.clear(slot);
+            }
+            emptySlots.set(slot);
+        }
+
+        void slotFilled(int slot) {
+            emptySlots.clear(slot);
+            patterns.classify(slots.get(slot), slot, matchingSlots);
+        }
+    }
+
+    private record DescriptorKey(long contentHash, String itemId, Optional<String> canonicalNbtPayload) {
         static DescriptorKey from(MinecraftItemDescriptor descriptor) {
-            return new DescriptorKey(descriptor.itemId(), descriptor.nbtPayload());
+            return new DescriptorKey(descriptor.contentHash(), descriptor.itemId(), descriptor.canonicalNbtPayload());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof DescriptorKey key
+                    && contentHash == key.contentHash
+                    && itemId.equals(key.itemId)
+                    && canonicalNbtPayload.equals(key.canonicalNbtPayload);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(contentHash);
         }
     }
 
@@ -3,6 +3,8 @@ package dev.coffer.minecraft.bindings.inventory;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import org.coffer.core.model.id.ActorRef;
 import org.coffer.core.model.request.ValueDeclaration;
 import org.coffer.firstparty.authority.transferablevalue.core.TransferableValueRuntimePayloadFactory;
@@ -11,6 +13,16 @@ import org.coffer.firstparty.authority.transferablevalue.port.TransferableValueD
 public final class MinecraftRuntimePayloadFactory implements TransferableValueRuntimePayloadFactory {
     public static final String BINDING_ID = "bindingId";
 
+    private final Optional<MinecraftDescriptorInterner> interner;
+
+    public MinecraftRuntimePayloadFactory() {
+        this.interner = Optional.empty();
+    }
+
+    public MinecraftRuntimePayloadFactory(MinecraftDescriptorInterner interner) {
+        this.interner = Optional.of(Objects.requireNonNull(interner, "interner"));
+    }
+
     @Override
     public Map<String, Object> runtimeDescriptor(
             ValueDeclaration value,
@@ -20,6 +32,10 @@ public final class MinecraftRuntimePayloadFactory implements TransferableValueRu
             return Map.of();
         }
 
+        if (interner.isPresent()) {
+            return compactDescriptor(minecraftDescriptor, interner.get());
+        }
+
         Map<String, Object> runtimeDescriptor = new LinkedHashMap<>();
         runtimeDescriptor.put(MinecraftDescriptorFactory.ITEM_ID, minecraftDescriptor.itemId());
         minecraftDescriptor.nbtPayload()
@@ -27,6 +43,22 @@ public final class MinecraftRuntimePayloadFactory implements TransferableValueRu
         return Map.copyOf(runtimeDescriptor);
     }
 
+    /**
+     * Carries the interned canonical payload instead of the caller's spelling, so the runtime side resolves it
+     * straight from the interner's canonical entry without parsing. It has no more keys than the map form.
+     */
+    private static Map<String, Object> compactDescriptor(
+            MinecraftItemDescriptor descriptor,
+            MinecraftDescriptorInterner interner) {
+        MinecraftItemContent content = interner.intern(descriptor.content());
+        if (content.canonicalNbtPayload().isEmpty()) {
+            return Map.of(MinecraftDescriptorFactory.ITEM_ID, content.itemId());
+        }
+        return Map.of(
+                MinecraftDescriptorFactory.ITEM_ID, content.itemId(),
+                MinecraftDescriptorFactory.NBT_PAYLOAD, content.canonicalNbtPayload().get());
+    }
+
     @Override
     public Map<String, Object> runtimePayload(
             ActorRef firstActorRef,
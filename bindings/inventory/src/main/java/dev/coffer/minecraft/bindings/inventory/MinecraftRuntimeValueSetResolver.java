@@ -18,7 +18,7 @@ public final class MinecraftRuntimeValueSetResolver implements TransferableValue
         this(new MinecraftDescriptorFactory());
     }
 
-    MinecraftRuntimeValueSetResolver(MinecraftDescriptorFactory descriptorFactory) {
+    public MinecraftRuntimeValueSetResolver(MinecraftDescriptorFactory descriptorFactory) {
         this.descriptorFactory = Objects.requireNonNull(descriptorFactory, "descriptorFactory");
     }
 
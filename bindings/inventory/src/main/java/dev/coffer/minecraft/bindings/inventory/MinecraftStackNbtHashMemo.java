@@ -0,0 +1,76 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NbtCompound;
+
+public final class MinecraftStackNbtHashMemo implements AutoCloseable {
+    private static final ThreadLocal<MinecraftStackNbtHashMemo> CURRENT = new ThreadLocal<>();
+
+    private final Map<ItemStack, Long> hashes = new IdentityHashMap<>();
+    private final MinecraftStackNbtHashMemo previous;
+    private final Thread owner;
+    private long computedHashes;
+    private long reusedHashes;
+    private boolean closed;
+
+    private MinecraftStackNbtHashMemo(MinecraftStackNbtHashMemo previous) {
+        this.previous = previous;
+        this.owner = Thread.currentThread();
+    }
+
+    public static MinecraftStackNbtHashMemo open() {
+        MinecraftStackNbtHashMemo memo = new MinecraftStackNbtHashMemo(CURRENT.get());
+        CURRENT.set(memo);
+        return memo;
+    }
+
+    static OptionalLong hash(ItemStack stack) {
+        MinecraftStackNbtHashMemo memo = CURRENT.get();
+        if (memo == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(memo.hashOf(stack));
+    }
+
+    public Statistics statistics() {
+        return new Statistics(computedHashes, reusedHashes, hashes.size());
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        if (Thread.currentThread() != owner || CURRENT.get() != this) {
+            throw new IllegalStateException("stack NBT hash memo must be closed by its owner in open order");
+        }
+        closed = true;
+        hashes.clear();
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    private long hashOf(ItemStack stack) {
+        Objects.requireNonNull(stack, "stack");
+        Long known = hashes.get(stack);
+        if (known != null) {
+            reusedHashes++;
+            return known;
+        }
+        NbtCompound nbt = stack.getNbt();
+        long hash = nbt == null ? 0L : MinecraftNbtCanonicalForm.structuralHash(nbt);
+        hashes.put(stack, hash);
+        computedHashes++;
+        return hash;
+    }
+
+    public record Statistics(long computedHashes, long reusedHashes, int size) {
+    }
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,6 +20,7 @@ import org.coffer.core.model.id.ValueRef;
 import org.coffer.core.model.request.ActorDeclaration;
 import org.coffer.core.model.request.ValueDeclaration;
 import org.coffer.core.model.support.OpaqueObject;
+import org.coffer.firstparty.authority.transferablevalue.port.MutationApplicationResult;
 import org.coffer.firstparty.authority.transferablevalue.port.TransferableValueContainer;
 import org.coffer.firstparty.authority.transferablevalue.port.TransferableValueDescriptor;
 import org.coffer.firstparty.authority.transferablevalue.port.TransferableValueSet;
@@ -80,6 +82,141 @@ class MinecraftCofferCollaboratorsTest {
         assertEquals(MinecraftPlayerInventoryContainer.Region.MAIN, minecraftContainer.region());
     }
 
+    @Test
+    void repeatedActorRefsReuseTheParsedIdentity() {
+        MinecraftContainerResolver resolver =
+                new MinecraftContainerResolver((playerId, region) -> Optional.of(List.of(ItemStack.EMPTY)));
+
+        assertTrue(resolver.resolve(PLAYER_ACTOR, "minecraft", Map.of(), null).isPresent());
+        assertTrue(resolver.resolve(PLAYER_ACTOR, "minecraft", Map.of(), null).isPresent());
+        assertTrue(resolver.resolve(new ActorRef("player:not-a-uuid:inventory:main"), "minecraft", Map.of(), null)
+                .isEmpty());
+        assertTrue(resolver.resolve(new ActorRef("player:not-a-uuid:inventory:main"), "minecraft", Map.of(), null)
+                .isEmpty());
+
+        assertEquals(
+                new MinecraftContainerResolver.IdentityCacheStatistics(2, 2, 0, 2),
+                resolver.identityCacheStatistics());
+    }
+
+    @Test
+    void identityCacheStaysWithinCapacity() {
+        MinecraftContainerResolver resolver =
+                new MinecraftContainerResolver((playerId, region) -> Optional.of(List.of(ItemStack.EMPTY)), 2);
+
+        for (MinecraftPlayerInventoryContainer.Region region : MinecraftPlayerInventoryContainer.Region.values()) {
+            ActorRef actorRef = new ActorRef("player:" + PLAYER_ID + ":inventory:" + region.serializedName());
+            MinecraftPlayerInventoryContainer container = assertInstanceOf(
+                    MinecraftPlayerInventoryContainer.class,
+                    resolver.resolve(actorRef, "minecraft", Map.of(), null).orElseThrow());
+            assertEquals(region, container.region());
+        }
+
+        MinecraftContainerResolver.IdentityCacheStatistics statistics = resolver.identityCacheStatistics();
+        assertEquals(2, statistics.size());
+        assertEquals(MinecraftPlayerInventoryContainer.Region.values().length - 2, statistics.evictions());
+    }
+
+    @Test
+    void regionSetActorSettlesAgainstOneUnionOfTheLiveRegions() {
+        List<ItemStack> main = new ArrayList<>(List.of(new ItemStack(Items.STONE, 30), ItemStack.EMPTY));
+        List<ItemStack> hotbar = new ArrayList<>(List.of(new ItemStack(Items.STONE, 20)));
+        List<ItemStack> offhand = new ArrayList<>(List.of(ItemStack.EMPTY));
+        MinecraftContainerResolver resolver = new MinecraftContainerResolver((playerId, region) -> Optional.of(
+                switch (region) {
+                    case MAIN -> main;
+                    case HOTBAR -> hotbar;
+                    case ARMOR -> List.<ItemStack>of();
+                    case OFFHAND -> offhand;
+                }));
+
+        MinecraftPlayerInventoryContainer container = assertInstanceOf(
+                MinecraftPlayerInventoryContainer.class,
+                resolver.resolve(
+                        new ActorRef("player:" + PLAYER_ID + ":inventory:offhand+hotbar+main"),
+                        "minecraft",
+                        Map.of(),
+                        null).orElseThrow());
+        MinecraftPlayerInventoryContainer shop = new MinecraftPlayerInventoryContainer(
+                UUID.randomUUID(),
+                MinecraftPlayerInventoryContainer.Region.MAIN,
+                new ArrayList<>(List.of(new ItemStack(Items.DIRT, 1))));
+
+        assertEquals(
+                List.of(
+                        MinecraftPlayerInventoryContainer.Region.MAIN,
+                        MinecraftPlayerInventoryContainer.Region.HOTBAR,
+                        MinecraftPlayerInventoryContainer.Region.OFFHAND),
+                container.regions());
+        assertInstanceOf(
+                MutationApplicationResult.Success.class,
+                container.applyAtomicSwap(
+                        shop,
+                        new TransferableValueSet(List.of(new MinecraftItemDescriptor("minecraft:stone", 45, Optional.empty()))),
+                        new TransferableValueSet(List.of(new MinecraftItemDescriptor("minecraft:dirt", 1, Optional.empty())))));
+        assertEquals(Items.DIRT, main.get(0).getItem());
+        assertEquals(5, hotbar.get(0).getCount());
+        assertTrue(main.get(1).isEmpty());
+    }
+
+    @Test
+    void regionSetsResolveToOneCanonicalContainerIdWhateverTheOrder() {
+        MinecraftContainerResolver resolver =
+                new MinecraftContainerResolver((playerId, region) -> Optional.of(List.of(ItemStack.EMPTY)));
+
+        MinecraftPlayerInventoryContainer forward = assertInstanceOf(
+                MinecraftPlayerInventoryContainer.class,
+                resolver.resolve(
+                        new ActorRef("player:" + PLAYER_ID + ":inventory:main+offhand"),
+                        "minecraft",
+                        Map.of(),
+                        null).orElseThrow());
+        MinecraftPlayerInventoryContainer reversed = assertInstanceOf(
+                MinecraftPlayerInventoryContainer.class,
+                resolver.resolve(
+                        new ActorRef("player:" + PLAYER_ID + ":inventory:offhand+main"),
+                        "minecraft",
+                        Map.of(),
+                        null).orElseThrow());
+
+        assertEquals("player:" + PLAYER_ID + ":inventory:main+offhand", forward.containerId());
+        assertEquals(forward.containerId(), reversed.containerId());
+    }
+
+    @Test
+    void overlappingRegionSetsOfOnePlayerAreNotSwapped() {
+        List<ItemStack> slots = new ArrayList<>(List.of(new ItemStack(Items.STONE, 8)));
+        MinecraftContainerResolver resolver =
+                new MinecraftContainerResolver((playerId, region) -> Optional.of(slots));
+        TransferableValueContainer main = resolver.resolve(
+                new ActorRef("player:" + PLAYER_ID + ":inventory:main"), "minecraft", Map.of(), null).orElseThrow();
+        TransferableValueContainer union = resolver.resolve(
+                new ActorRef("player:" + PLAYER_ID + ":inventory:main+hotbar"), "minecraft", Map.of(), null).orElseThrow();
+        TransferableValueSet stone =
+                new TransferableValueSet(List.of(new MinecraftItemDescriptor("minecraft:stone", 1, Optional.empty())));
+
+        MutationApplicationResult.Failed failed = assertInstanceOf(
+                MutationApplicationResult.Failed.class,
+                union.applyAtomicSwap(main, stone, stone));
+
+        assertEquals(MinecraftPlayerInventoryContainer.CONTAINER_OVERLAP, failed.reasonCode());
+        assertEquals(8, slots.get(0).getCount());
+    }
+
+    @Test
+    void malformedRegionSetsDoNotResolve() {
+        MinecraftContainerResolver resolver =
+                new MinecraftContainerResolver((playerId, region) -> Optional.of(List.of(ItemStack.EMPTY)));
+
+        for (String regions : List.of("main+main", "main+", "+main", "main+pocket", "main+armor", "armor+offhand")) {
+            assertTrue(resolver.resolve(
+                    new ActorRef("player:" + PLAYER_ID + ":inventory:" + regions),
+                    "minecraft",
+                    Map.of(),
+                    null).isEmpty(), regions);
+        }
+    }
+
     @Test
     void unsupportedActorReturnsEmpty() {
         MinecraftContainerResolver resolver =
@@ -92,6 +229,17 @@ class MinecraftCofferCollaboratorsTest {
         assertTrue(container.isEmpty());
     }
 
+    @Test
+    void playerIdIsReadOnlyFromPlayerInventoryActors() {
+        assertEquals(
+                Optional.of(PLAYER_ID),
+                MinecraftContainerResolver.playerId(actor(PLAYER_ACTOR, MinecraftContainerResolver.PLAYER_INVENTORY_KIND)));
+        assertTrue(MinecraftContainerResolver.playerId(actor(PLAYER_ACTOR, "minecraft.block.inventory")).isEmpty());
+        assertTrue(MinecraftContainerResolver.playerId(actor(
+                new ActorRef("player:not-a-uuid:inventory:main"),
+                MinecraftContainerResolver.PLAYER_INVENTORY_KIND)).isEmpty());
+    }
+
     @Test
     void descriptorSetConvertsRuntimeEntries() {
         MinecraftRuntimeValueSetResolver resolver = new MinecraftRuntimeValueSetResolver();
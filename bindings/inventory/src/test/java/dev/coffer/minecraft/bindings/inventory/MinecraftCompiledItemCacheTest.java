@@ -0,0 +1,77 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class MinecraftCompiledItemCacheTest {
+    @BeforeAll
+    static void bootstrapMinecraftRegistries() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void repeatedItemIdentityCompilesOnce() {
+        MinecraftCompiledItemCache cache = new MinecraftCompiledItemCache(4);
+
+        MinecraftCompiledItem first = cache.compile("minecraft:diamond_sword", Optional.of("{Damage:5}")).orElseThrow();
+        MinecraftCompiledItem second = cache.compile("minecraft:diamond_sword", Optional.of("{Damage:5}")).orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(Items.DIAMOND_SWORD, first.item());
+        assertEquals(1, first.maxCount());
+        assertEquals(1, cache.statistics().hits());
+        assertEquals(1, cache.statistics().misses());
+    }
+
+    @Test
+    void unknownItemIsCachedAsNegativeEntry() {
+        MinecraftCompiledItemCache cache = new MinecraftCompiledItemCache(4);
+
+        assertTrue(cache.compile("minecraft:not_an_item", Optional.empty()).isEmpty());
+        assertTrue(cache.compile("minecraft:not_an_item", Optional.empty()).isEmpty());
+
+        assertEquals(1, cache.statistics().misses());
+        assertEquals(1, cache.statistics().size());
+    }
+
+    @Test
+    void newStacksAreIndependentCopiesOfThePrototype() {
+        MinecraftCompiledItemCache cache = new MinecraftCompiledItemCache(4);
+        MinecraftCompiledItem compiled = cache.compile("minecraft:stone", Optional.of("{custom:1b}")).orElseThrow();
+
+        ItemStack first = compiled.newStack();
+        first.setCount(32);
+        first.getNbt().putByte("custom", (byte) 2);
+        ItemStack second = compiled.newStack();
+
+        assertNotSame(first, second);
+        assertEquals(1, second.getCount());
+        assertEquals("{custom:1b}", second.getNbt().toString());
+    }
+
+    @Test
+    void invalidationStartsANewGenerationAndDescriptorsRecompile() {
+        MinecraftItemDescriptor descriptor =
+                new MinecraftItemDescriptor("minecraft:stone", 1, Optional.empty());
+        MinecraftCompiledItem before = descriptor.compiled().orElseThrow();
+        long generation = MinecraftCompiledItemCache.shared().generation();
+
+        MinecraftCompiledItemCache.shared().invalidate();
+
+        assertEquals(generation + 1, MinecraftCompiledItemCache.shared().generation());
+        MinecraftCompiledItem after = descriptor.compiled().orElseThrow();
+        assertNotSame(before, after);
+        assertEquals(before.item(), after.item());
+    }
+}
@@ -0,0 +1,148 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.Optional;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class MinecraftDescriptorInternerTest {
+    @BeforeAll
+    static void bootstrapMinecraftRegistries() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void identicalDescriptorsShareContent() {
+        MinecraftDescriptorInterner interner = new MinecraftDescriptorInterner();
+
+        MinecraftItemDescriptor first = interner.descriptor("minecraft:stone", 1, Optional.of("{a:1}"));
+        MinecraftItemDescriptor second = interner.descriptor("minecraft:stone", 64, Optional.of("{a:1}"));
+
+        assertNotSame(first, second);
+        assertSame(first.content(), second.content());
+        assertSame(first.nbtPayload(), second.nbtPayload());
+        assertEquals(1, first.quantity());
+        assertEquals(64, second.quantity());
+        assertEquals(new MinecraftDescriptorInterner.Statistics(1, 1, 1), interner.statistics());
+    }
+
+    @Test
+    void reorderedPayloadsShareContentButKeepTheirOwnPayload() {
+        MinecraftDescriptorInterner interner = new MinecraftDescriptorInterner();
+
+        MinecraftItemDescriptor first = interner.descriptor("minecraft:stone", 1, Optional.of("{a:1,b:2}"));
+        MinecraftItemDescriptor second = interner.descriptor("minecraft:stone", 1, Optional.of("{b:2, a:1}"));
+
+        assertSame(first.content(), second.content());
+        assertEquals("{a:1,b:2}", first.nbtPayload().orElseThrow());
+        assertEquals("{b:2, a:1}", second.nbtPayload().orElseThrow());
+    }
+
+    @Test
+    void repeatedSpellingIsServedWithoutCanonicalizingAgain() {
+        MinecraftDescriptorInterner interner = new MinecraftDescriptorInterner();
+        MinecraftItemContent first = interner.intern("minecraft:stone", Optional.of("{b:2, a:1}"));
+        MinecraftNbtPayloadCache.Statistics before = MinecraftNbtPayloadCache.shared().statistics();
+
+        MinecraftItemContent second = interner.intern("minecraft:stone", Optional.of("{b:2, a:1}"));
+
+        MinecraftNbtPayloadCache.Statistics after = MinecraftNbtPayloadCache.shared().statistics();
+        assertSame(first, second);
+        assertEquals(before.hits() + before.misses(), after.hits() + after.misses());
+        assertEquals(new MinecraftDescriptorInterner.Statistics(1, 1, 1), interner.statistics());
+    }
+
+    @Test
+    void contentIsProbedByItsPrecomputedHash() {
+        MinecraftDescriptorInterner interner = new MinecraftDescriptorInterner();
+        MinecraftItemContent first = MinecraftItemContent.of("minecraft:stone", Optional.of("{a:1,b:2}"));
+        MinecraftItemContent second = MinecraftItemContent.of("minecraft:stone", Optional.of("{b:2,a:1}"));
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertSame(first, interner.find(second.hash()).orElseThrow());
+        assertEquals(new MinecraftDescriptorInterner.Statistics(1, 1, 1), interner.statistics());
+    }
+
+    @Test
+    void differentContentIsNotShared() {
+        MinecraftDescriptorInterner interner = new MinecraftDescriptorInterner();
+
+        MinecraftItemDescriptor stone = interner.descriptor("minecraft:stone", 1, Optional.empty());
+        MinecraftItemDescriptor dirt = interner.descriptor("minecraft:dirt", 1, Optional.empty());
+        MinecraftItemDescriptor tagged = interner.descriptor("minecraft:stone", 1, Optional.of("{a:1}"));
+
+        assertNotSame(stone.content(), dirt.content());
+        assertNotSame(stone.content(), tagged.content());
+        assertEquals(new MinecraftDescriptorInterner.Statistics(0, 3, 3), interner.statistics());
+    }
+
+    @Test
+    void factoryWithInternerSharesContentAcrossDeclarationsAndRuntimeEntries() {
+        MinecraftDescriptorFactory factory = new MinecraftDescriptorFactory(new MinecraftDescriptorInterner());
+        Map<String, Object> runtimeDescriptor = Map.of(
+                MinecraftDescriptorFactory.ITEM_ID, "minecraft:stone",
+                MinecraftDescriptorFactory.NBT_PAYLOAD, "{a:1}");
+
+        MinecraftItemDescriptor first = factory.createRuntimeDescriptor(runtimeDescriptor, 2).orElseThrow();
+        MinecraftItemDescriptor second = factory.createRuntimeDescriptor(runtimeDescriptor, 5).orElseThrow();
+
+        assertSame(first.content(), second.content());
+    }
+
+    @Test
+    void compactRuntimeDescriptorCarriesOnlyTheCanonicalPayload() {
+        MinecraftRuntimePayloadFactory payloadFactory = new MinecraftRuntimePayloadFactory(new MinecraftDescriptorInterner());
+        MinecraftItemDescriptor tagged = new MinecraftItemDescriptor("minecraft:stone", 3, Optional.of("{b:2, a:1}"));
+        MinecraftItemDescriptor plain = new MinecraftItemDescriptor("minecraft:dirt", 3, Optional.empty());
+
+        Map<String, Object> taggedDescriptor = payloadFactory.runtimeDescriptor(null, tagged, "minecraft");
+        Map<String, Object> plainDescriptor = payloadFactory.runtimeDescriptor(null, plain, "minecraft");
+
+        assertEquals(Map.of(
+                MinecraftDescriptorFactory.ITEM_ID, "minecraft:stone",
+                MinecraftDescriptorFactory.NBT_PAYLOAD, tagged.canonicalNbtPayload().orElseThrow()), taggedDescriptor);
+        assertEquals(Map.of(MinecraftDescriptorFactory.ITEM_ID, "minecraft:dirt"), plainDescriptor);
+    }
+
+    @Test
+    void nonCanonicalSpellingRoundTripsWithoutParsing() {
+        MinecraftDescriptorInterner interner = new MinecraftDescriptorInterner();
+        MinecraftRuntimePayloadFactory payloadFactory = new MinecraftRuntimePayloadFactory(interner);
+        MinecraftDescriptorFactory descriptorFactory = new MinecraftDescriptorFactory(interner);
+        MinecraftItemDescriptor declared = new MinecraftItemDescriptor("minecraft:stone", 3, Optional.of("{b:2, a:1}"));
+        Map<String, Object> runtimeDescriptor = payloadFactory.runtimeDescriptor(null, declared, "minecraft");
+        MinecraftNbtPayloadCache.Statistics before = MinecraftNbtPayloadCache.shared().statistics();
+
+        MinecraftItemDescriptor resolved = descriptorFactory.createRuntimeDescriptor(runtimeDescriptor, 3).orElseThrow();
+
+        MinecraftNbtPayloadCache.Statistics after = MinecraftNbtPayloadCache.shared().statistics();
+        assertSame(declared.content(), resolved.content());
+        assertSame(declared.content().canonicalNbtPayload(), resolved.nbtPayload());
+        assertTrue(resolved.sameContent(declared));
+        assertEquals(before.hits() + before.misses(), after.hits() + after.misses());
+    }
+
+    @Test
+    void compactRuntimeDescriptorStillResolvesAfterTheInternerForgetsItsContent() {
+        MinecraftRuntimePayloadFactory payloadFactory = new MinecraftRuntimePayloadFactory(new MinecraftDescriptorInterner());
+        MinecraftDescriptorFactory descriptorFactory = new MinecraftDescriptorFactory(new MinecraftDescriptorInterner());
+        MinecraftItemDescriptor declared = new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of("{b:2, a:1}"));
+
+        MinecraftItemDescriptor resolved = descriptorFactory
+                .createRuntimeDescriptor(payloadFactory.runtimeDescriptor(null, declared, "minecraft"), 1)
+                .orElseThrow();
+
+        assertEquals("minecraft:stone", resolved.itemId());
+        assertEquals(declared.canonicalNbtPayload(), resolved.nbtPayload());
+        assertTrue(resolved.sameContent(declared));
+    }
+}
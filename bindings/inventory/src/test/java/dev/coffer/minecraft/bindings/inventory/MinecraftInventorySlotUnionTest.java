@@ -0,0 +1,47 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class MinecraftInventorySlotUnionTest {
+    @BeforeAll
+    static void bootstrapMinecraftRegistries() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void unionReadsAndWritesThroughToTheSegments() {
+        ItemStack stone = new ItemStack(Items.STONE, 1);
+        List<ItemStack> first = new ArrayList<>(List.of(stone, ItemStack.EMPTY));
+        List<ItemStack> empty = new ArrayList<>();
+        List<ItemStack> second = new ArrayList<>(List.of(ItemStack.EMPTY));
+
+        List<ItemStack> union = MinecraftInventorySlotUnion.of(List.of(first, empty, second));
+        ItemStack dirt = new ItemStack(Items.DIRT, 1);
+        union.set(2, dirt);
+
+        assertEquals(3, union.size());
+        assertSame(stone, union.get(0));
+        assertSame(dirt, second.get(0));
+        assertSame(dirt, union.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> union.get(3));
+    }
+
+    @Test
+    void singleSegmentIsReturnedAsIs() {
+        List<ItemStack> slots = new ArrayList<>(List.of(ItemStack.EMPTY));
+
+        assertSame(slots, MinecraftInventorySlotUnion.of(List.of(slots)));
+    }
+}
@@ -0,0 +1,210 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.UUID;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.coffer.core.model.id.ActorRef;
+import org.coffer.firstparty.authority.transferablevalue.port.MutationApplicationResult;
+import org.coffer.firstparty.authority.transferablevalue.port.RemovabilityResult;
+import org.coffer.firstparty.authority.transferablevalue.port.SimulationResult;
+import org.coffer.firstparty.authority.transferablevalue.port.TransferableValueDescriptor;
+import org.coffer.firstparty.authority.transferablevalue.port.TransferableValueSet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class MinecraftInventoryValidationMemoTest {
+    private static final UUID FIRST_PLAYER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID SECOND_PLAYER_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+
+    @BeforeAll
+    static void bootstrapMinecraftRegistries() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void repeatedValidationAtSameVersionReusesResult() {
+        VersionedSlots slots = new VersionedSlots();
+        slots.put(FIRST_PLAYER_ID, new ItemStack(Items.STONE, 8));
+        MinecraftContainerResolver resolver = new MinecraftContainerResolver(slots);
+        MinecraftPlayerInventoryContainer container = container(resolver, FIRST_PLAYER_ID);
+
+        RemovabilityResult first = container.canRemove(values(descriptor("minecraft:stone", 4)));
+        RemovabilityResult second = container(resolver, FIRST_PLAYER_ID)
+                .canRemove(values(descriptor("minecraft:stone", 4)));
+
+        assertInstanceOf(RemovabilityResult.Success.class, first);
+        assertInstanceOf(RemovabilityResult.Success.class, second);
+        assertEquals(new MinecraftInventoryValidationMemo.Statistics(1, 1, 1, 1), resolver.validationMemo().statistics());
+    }
+
+    @Test
+    void versionChangeForcesRevalidation() {
+        VersionedSlots slots = new VersionedSlots();
+        slots.put(FIRST_PLAYER_ID, new ItemStack(Items.STONE, 8));
+        MinecraftContainerResolver resolver = new MinecraftContainerResolver(slots);
+        MinecraftPlayerInventoryContainer container = container(resolver, FIRST_PLAYER_ID);
+
+        container.canRemove(values(descriptor("minecraft:stone", 4)));
+        slots.slots(FIRST_PLAYER_ID).get(0).setCount(2);
+        slots.mutated(FIRST_PLAYER_ID);
+        RemovabilityResult result = container.canRemove(values(descriptor("minecraft:stone", 4)));
+
+        assertInstanceOf(RemovabilityResult.Failed.class, result);
+        assertEquals(2, resolver.validationMemo().statistics().slotScans());
+        assertEquals(0, resolver.validationMemo().statistics().reusedResults());
+    }
+
+    @Test
+    void applicationReusesSimulationAndInvalidatesBothContainers() {
+        VersionedSlots slots = new VersionedSlots();
+        slots.put(FIRST_PLAYER_ID, new ItemStack(Items.STONE, 8), ItemStack.EMPTY);
+        slots.put(SECOND_PLAYER_ID, new ItemStack(Items.DIRT, 8), ItemStack.EMPTY);
+        MinecraftContainerResolver resolver = new MinecraftContainerResolver(slots);
+        MinecraftPlayerInventoryContainer first = container(resolver, FIRST_PLAYER_ID);
+        MinecraftPlayerInventoryContainer second = container(resolver, SECOND_PLAYER_ID);
+        TransferableValueSet fromFirst = values(descriptor("minecraft:stone", 8));
+        TransferableValueSet fromSecond = values(descriptor("minecraft:dirt", 8));
+
+        SimulationResult simulation = first.simulateAtomicSwap(second, fromFirst, fromSecond);
+        MutationApplicationResult application = first.applyAtomicSwap(second, fromFirst, fromSecond);
+
+        assertInstanceOf(SimulationResult.Success.class, simulation);
+        assertInstanceOf(MutationApplicationResult.Success.class, application);
+        assertEquals(new MinecraftInventoryValidationMemo.Statistics(2, 1, 1, 0), resolver.validationMemo().statistics());
+        assertTrue(slots.slots(FIRST_PLAYER_ID).get(0).isOf(Items.DIRT));
+        assertTrue(slots.slots(SECOND_PLAYER_ID).get(0).isOf(Items.STONE));
+        assertEquals(OptionalLong.of(1), first.version());
+        assertEquals(OptionalLong.of(1), second.version());
+    }
+
+    @Test
+    void sharedMemoLetsLiveApplicationCommitAPlanSimulatedOnACopy() {
+        VersionedSlots live = new VersionedSlots();
+        live.put(FIRST_PLAYER_ID, new ItemStack(Items.STONE, 8), ItemStack.EMPTY);
+        live.put(SECOND_PLAYER_ID, new ItemStack(Items.DIRT, 8), ItemStack.EMPTY);
+        VersionedSlots copies = new VersionedSlots();
+        copies.put(FIRST_PLAYER_ID, new ItemStack(Items.STONE, 8), ItemStack.EMPTY);
+        copies.put(SECOND_PLAYER_ID, new ItemStack(Items.DIRT, 8), ItemStack.EMPTY);
+        MinecraftInventoryValidationMemo memo = new MinecraftInventoryValidationMemo(16);
+        MinecraftContainerResolver liveResolver = new MinecraftContainerResolver(live, memo);
+        MinecraftContainerResolver copyResolver = new MinecraftContainerResolver(copies, memo);
+        TransferableValueSet fromFirst = values(descriptor("minecraft:stone", 8));
+        TransferableValueSet fromSecond = values(descriptor("minecraft:dirt", 8));
+
+        SimulationResult simulation = container(copyResolver, FIRST_PLAYER_ID)
+                .simulateAtomicSwap(container(copyResolver, SECOND_PLAYER_ID), fromFirst, fromSecond);
+        MutationApplicationResult application = container(liveResolver, FIRST_PLAYER_ID)
+                .applyAtomicSwap(container(liveResolver, SECOND_PLAYER_ID), fromFirst, fromSecond);
+
+        assertInstanceOf(SimulationResult.Success.class, simulation);
+        assertInstanceOf(MutationApplicationResult.Success.class, application);
+        assertEquals(new MinecraftInventoryValidationMemo.Statistics(2, 1, 1, 0), memo.statistics());
+        assertTrue(live.slots(FIRST_PLAYER_ID).get(0).isOf(Items.DIRT));
+        assertTrue(live.slots(SECOND_PLAYER_ID).get(0).isOf(Items.STONE));
+        assertTrue(copies.slots(FIRST_PLAYER_ID).get(0).isOf(Items.STONE));
+        assertTrue(copies.slots(SECOND_PLAYER_ID).get(0).isOf(Items.DIRT));
+    }
+
+    @Test
+    void untrackedSlotsAreNeverMemoized() {
+        List<ItemStack> slots = new ArrayList<>(List.of(new ItemStack(Items.STONE, 8)));
+        MinecraftContainerResolver resolver = new MinecraftContainerResolver((playerId, region) -> Optional.of(slots));
+        MinecraftPlayerInventoryContainer container = container(resolver, FIRST_PLAYER_ID);
+
+        container.canRemove(values(descriptor("minecraft:stone", 4)));
+        container.canRemove(values(descriptor("minecraft:stone", 4)));
+
+        assertEquals(OptionalLong.empty(), container.version());
+        assertEquals(new MinecraftInventoryValidationMemo.Statistics(2, 0, 0, 0), resolver.validationMemo().statistics());
+    }
+
+    @Test
+    void leastRecentlyUsedResultIsEvictedAtCapacity() {
+        MinecraftInventoryValidationMemo memo = new MinecraftInventoryValidationMemo(1);
+
+        memo.remember(new TestKey("first"), "first-result");
+        memo.remember(new TestKey("second"), "second-result");
+
+        assertTrue(memo.find(new TestKey("first"), String.class).isEmpty());
+        assertEquals(Optional.of("second-result"), memo.find(new TestKey("second"), String.class));
+        assertEquals(1, memo.statistics().size());
+    }
+
+    @Test
+    void invalidationDropsOnlyResultsInvolvingContainer() {
+        MinecraftInventoryValidationMemo memo = new MinecraftInventoryValidationMemo(4);
+        memo.remember(new TestKey("first"), "first-result");
+        memo.remember(new TestKey("second"), "second-result");
+
+        memo.invalidate("first");
+
+        assertTrue(memo.find(new TestKey("first"), String.class).isEmpty());
+        assertEquals(Optional.of("second-result"), memo.find(new TestKey("second"), String.class));
+    }
+
+    private static MinecraftPlayerInventoryContainer container(MinecraftContainerResolver resolver, UUID playerId) {
+        return (MinecraftPlayerInventoryContainer) resolver.resolve(
+                new ActorRef("player:" + playerId + ":inventory:main"),
+                "minecraft",
+                Map.of(),
+                null).orElseThrow();
+    }
+
+    private static TransferableValueSet values(TransferableValueDescriptor... descriptors) {
+        return new TransferableValueSet(List.of(descriptors));
+    }
+
+    private static MinecraftItemDescriptor descriptor(String itemId, long quantity) {
+        return new MinecraftItemDescriptor(itemId, quantity, Optional.empty());
+    }
+
+    private record TestKey(String containerId) implements MinecraftInventoryValidationMemo.Key {
+        @Override
+        public boolean involves(String candidateContainerId) {
+            return containerId.equals(candidateContainerId);
+        }
+    }
+
+    private static final class VersionedSlots implements MinecraftContainerResolver.PlayerInventorySlots {
+        private final Map<UUID, List<ItemStack>> slots = new HashMap<>();
+        private final Map<UUID, Long> versions = new HashMap<>();
+
+        void put(UUID playerId, ItemStack... stacks) {
+            slots.put(playerId, new ArrayList<>(List.of(stacks)));
+            versions.put(playerId, 0L);
+        }
+
+        List<ItemStack> slots(UUID playerId) {
+            return slots.get(playerId);
+        }
+
+        @Override
+        public Optional<List<ItemStack>> resolve(UUID playerId, MinecraftPlayerInventoryContainer.Region region) {
+            return Optional.ofNullable(slots.get(playerId));
+        }
+
+        @Override
+        public OptionalLong version(UUID playerId) {
+            Long version = versions.get(playerId);
+            return version == null ? OptionalLong.empty() : OptionalLong.of(version);
+        }
+
+        @Override
+        public void mutated(UUID playerId) {
+            versions.computeIfPresent(playerId, (ignored, version) -> version + 1);
+        }
+    }
+}
@@ -59,6 +59,41 @@ class MinecraftItemDescriptorTest {
                 () -> new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of(" ")));
     }
 
+    @Test
+    void reorderedNbtPayloadsShareCanonicalFormAndHash() {
+        MinecraftItemDescriptor first =
+                new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of("{b:2, a:'x y', c:[1b,2b]}"));
+        MinecraftItemDescriptor second =
+                new MinecraftItemDescriptor("minecraft:stone", 4, Optional.of("{a:\"x y\",c:[1b,2b],b:2}"));
+
+        assertEquals("{a:\"x y\",b:2,c:[1b,2b]}", first.canonicalNbtPayload().orElseThrow());
+        assertEquals(first.canonicalNbtPayload(), second.canonicalNbtPayload());
+        assertEquals(first.contentHash(), second.contentHash());
+        assertTrue(first.sameContent(second));
+        assertEquals("{b:2, a:'x y', c:[1b,2b]}", first.nbtPayload().orElseThrow());
+    }
+
+    @Test
+    void differentItemOrNbtProducesDifferentContent() {
+        MinecraftItemDescriptor stone = new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of("{a:1}"));
+        MinecraftItemDescriptor dirt = new MinecraftItemDescriptor("minecraft:dirt", 1, Optional.of("{a:1}"));
+        MinecraftItemDescriptor otherNbt = new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of("{a:2}"));
+        MinecraftItemDescriptor plain = new MinecraftItemDescriptor("minecraft:stone", 1, Optional.empty());
+
+        assertFalse(stone.sameContent(dirt));
+        assertFalse(stone.sameContent(otherNbt));
+        assertFalse(stone.sameContent(plain));
+        assertTrue(plain.canonicalNbtPayload().isEmpty());
+    }
+
+    @Test
+    void unparseableNbtPayloadIsItsOwnCanonicalForm() {
+        MinecraftItemDescriptor descriptor =
+                new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of("{invalid:"));
+
+        assertEquals("{invalid:", descriptor.canonicalNbtPayload().orElseThrow());
+    }
+
     @Test
     void descriptorContainsNoDisplayTextFieldOrBehavior() {
         assertFalse(declaredFieldOrMethodContains("display"));
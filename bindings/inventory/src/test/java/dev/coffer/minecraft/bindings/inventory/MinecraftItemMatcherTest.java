@@ -1,9 +1,12 @@
 package dev.coffer.minecraft.bindings.inventory;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Optional;
 import net.minecraft.Bootstrap;
 import net.minecraft.SharedConstants;
@@ -121,6 +124,51 @@ class MinecraftItemMatcherTest {
         assertFalse(MinecraftItemMatcher.matches(stack, descriptor));
     }
 
+    @Test
+    void unknownItemIdNeverMatches() {
+        MinecraftItemDescriptor descriptor =
+                new MinecraftItemDescriptor("minecraft:not_an_item", 1, Optional.empty());
+
+        assertFalse(MinecraftItemMatcher.matches(new ItemStack(Items.STONE, 1), descriptor));
+        assertFalse(MinecraftItemMatcher.matches(new ItemStack(Items.AIR, 1), descriptor));
+    }
+
+    @Test
+    void itemIdMustBeTheFullRegistryIdentifier() {
+        MinecraftItemDescriptor descriptor = new MinecraftItemDescriptor("stone", 1, Optional.empty());
+
+        assertFalse(MinecraftItemMatcher.matches(new ItemStack(Items.STONE, 1), descriptor));
+    }
+
+    @Test
+    void patternScanReportsEveryDescriptorInOnePass() throws CommandSyntaxException {
+        ItemStack taggedStone = stackWithNbt(Items.STONE, "{custom:1b}");
+        taggedStone.setCount(10);
+        List<ItemStack> slots = List.of(
+                new ItemStack(Items.STONE, 64),
+                ItemStack.EMPTY,
+                new ItemStack(Items.STONE, 5),
+                taggedStone,
+                new ItemStack(Items.DIRT, 3));
+        MinecraftItemMatcher.Patterns patterns = MinecraftItemMatcher.compile(List.of(
+                new MinecraftItemDescriptor("minecraft:stone", 1, Optional.empty()),
+                new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of("{custom:1b}")),
+                new MinecraftItemDescriptor("minecraft:diamond", 1, Optional.empty()),
+                new MinecraftItemDescriptor("minecraft:not_an_item", 1, Optional.empty())));
+
+        MinecraftItemMatcher.Scan scan = patterns.scan(slots);
+
+        assertEquals(69, scan.matchingQuantity(0));
+        assertEquals(59, scan.partialCapacity(0));
+        assertEquals(BitSet.valueOf(new long[] {0b101}), scan.matchingSlots(0));
+        assertEquals(10, scan.matchingQuantity(1));
+        assertEquals(54, scan.partialCapacity(1));
+        assertEquals(BitSet.valueOf(new long[] {0b1000}), scan.matchingSlots(1));
+        assertEquals(0, scan.matchingQuantity(2));
+        assertTrue(scan.matchingSlots(3).isEmpty());
+        assertEquals(BitSet.valueOf(new long[] {0b10}), scan.emptySlots());
+    }
+
     private static ItemStack stackWithNbt(net.minecraft.item.ItemConvertible item, String nbt)
             throws CommandSyntaxException {
         ItemStack stack = new ItemStack(item, 1);
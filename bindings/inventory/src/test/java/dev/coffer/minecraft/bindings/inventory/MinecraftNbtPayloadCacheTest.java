@@ -0,0 +1,66 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+import net.minecraft.nbt.NbtCompound;
+import org.junit.jupiter.api.Test;
+
+class MinecraftNbtPayloadCacheTest {
+    @Test
+    void repeatedPayloadIsParsedOnce() {
+        MinecraftNbtPayloadCache cache = new MinecraftNbtPayloadCache(4);
+
+        NbtCompound first = cache.parseShared("{custom:1b}").orElseThrow();
+        NbtCompound second = cache.parseShared("{custom:1b}").orElseThrow();
+
+        assertSame(first, second);
+        assertEquals(new MinecraftNbtPayloadCache.Statistics(1, 1, 0, 1), cache.statistics());
+    }
+
+    @Test
+    void publicParseHandsOutCopiesSoCallersCannotCorruptTheCache() {
+        MinecraftNbtPayloadCache cache = new MinecraftNbtPayloadCache(4);
+
+        NbtCompound handedOut = cache.parse("{custom:1b}").orElseThrow();
+        handedOut.putByte("custom", (byte) 2);
+
+        assertNotSame(handedOut, cache.parseShared("{custom:1b}").orElseThrow());
+        assertEquals(1, cache.parse("{custom:1b}").orElseThrow().getByte("custom"));
+    }
+
+    @Test
+    void malformedPayloadIsCachedAsNegativeEntry() {
+        MinecraftNbtPayloadCache cache = new MinecraftNbtPayloadCache(4);
+
+        Optional<NbtCompound> first = cache.parse("{custom:");
+        Optional<NbtCompound> second = cache.parse("{custom:");
+
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        assertEquals(new MinecraftNbtPayloadCache.Statistics(1, 1, 0, 1), cache.statistics());
+    }
+
+    @Test
+    void leastRecentlyUsedPayloadIsEvictedAtCapacity() {
+        MinecraftNbtPayloadCache cache = new MinecraftNbtPayloadCache(2);
+
+        NbtCompound first = cache.parseShared("{custom:1b}").orElseThrow();
+        cache.parse("{custom:2b}");
+        cache.parse("{custom:1b}");
+        cache.parse("{custom:3b}");
+
+        assertSame(first, cache.parseShared("{custom:1b}").orElseThrow());
+        cache.parse("{custom:2b}");
+        assertEquals(new MinecraftNbtPayloadCache.Statistics(2, 4, 2, 2), cache.statistics());
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new MinecraftNbtPayloadCache(0));
+    }
+}
@@ -0,0 +1,53 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.nbt.StringNbtReader;
+import org.junit.jupiter.api.Test;
+
+class MinecraftNbtPredicateTest {
+    private static final String DESCRIPTOR =
+            "{display:{Name:'{\"text\":\"Exact\"}',Lore:['\"a\"']},Damage:3,Enchantments:[{id:\"minecraft:sharpness\",lvl:3s}]}";
+
+    @Test
+    void equalCompoundsMatchRegardlessOfKeyOrder() throws CommandSyntaxException {
+        assertTrue(test(
+                DESCRIPTOR,
+                "{Enchantments:[{id:\"minecraft:sharpness\",lvl:3s}],Damage:3,display:{Lore:['\"a\"'],Name:'{\"text\":\"Exact\"}'}}"));
+    }
+
+    @Test
+    void differingLeafDoesNotMatch() throws CommandSyntaxException {
+        assertFalse(test(
+                DESCRIPTOR,
+                "{display:{Name:'{\"text\":\"Exact\"}',Lore:['\"a\"']},Damage:4,Enchantments:[{id:\"minecraft:sharpness\",lvl:3s}]}"));
+    }
+
+    @Test
+    void differingLeafTypeDoesNotMatch() throws CommandSyntaxException {
+        assertFalse(test("{custom:1b}", "{custom:1}"));
+    }
+
+    @Test
+    void extraKeysDoNotMatchAtAnyLevel() throws CommandSyntaxException {
+        assertFalse(test("{custom:1b}", "{custom:1b,other:1b}"));
+        assertFalse(test("{display:{Name:'\"a\"'}}", "{display:{Name:'\"a\"',Lore:[]}}"));
+    }
+
+    @Test
+    void missingNestedCompoundDoesNotMatch() throws CommandSyntaxException {
+        assertFalse(test("{display:{Name:'\"a\"'},custom:1b}", "{display:1b,custom:1b}"));
+        assertFalse(test("{display:{Name:'\"a\"'},custom:1b}", "{custom:1b,other:{Name:'\"a\"'}}"));
+    }
+
+    @Test
+    void listOrderIsSignificant() throws CommandSyntaxException {
+        assertFalse(test("{values:[1,2]}", "{values:[2,1]}"));
+    }
+
+    private static boolean test(String descriptor, String stack) throws CommandSyntaxException {
+        return MinecraftNbtPredicate.compile(StringNbtReader.parse(descriptor)).test(StringNbtReader.parse(stack));
+    }
+}
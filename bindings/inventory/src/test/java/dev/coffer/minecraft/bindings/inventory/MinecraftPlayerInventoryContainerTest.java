@@ -2,6 +2,9 @@ package dev.coffer.minecraft.bindings.inventory;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import java.util.ArrayList;
@@ -9,6 +12,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import net.minecraft.Bootstrap;
 import net.minecraft.SharedConstants;
 import net.minecraft.item.ItemConvertible;
@@ -26,6 +30,7 @@ import org.junit.jupiter.api.Test;
 
 class MinecraftPlayerInventoryContainerTest {
     private static final UUID PLAYER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final AtomicLong NEXT_PLAYER = new AtomicLong(1);
 
     @BeforeAll
     static void bootstrapMinecraftRegistries() {
@@ -84,6 +89,19 @@ class MinecraftPlayerInventoryContainerTest {
         assertEquals(MinecraftPlayerInventoryContainer.VALUE_NOT_REMOVABLE, failed.reasonCode());
     }
 
+    @Test
+    void reorderedNbtPayloadsAggregateAsOneValue() throws CommandSyntaxException {
+        MinecraftPlayerInventoryContainer container =
+                container(List.of(stackWithNbt(Items.STONE, 5, "{a:1,b:2}")));
+
+        RemovabilityResult result = container.canRemove(values(
+                new MinecraftItemDescriptor("minecraft:stone", 3, Optional.of("{a:1,b:2}")),
+                new MinecraftItemDescriptor("minecraft:stone", 3, Optional.of("{b:2, a:1}"))));
+
+        RemovabilityResult.Failed failed = assertInstanceOf(RemovabilityResult.Failed.class, result);
+        assertEquals(MinecraftPlayerInventoryContainer.VALUE_NOT_REMOVABLE, failed.reasonCode());
+    }
+
     @Test
     void emptyInventoryFails() {
         MinecraftPlayerInventoryContainer container = container(List.of());
@@ -127,6 +145,15 @@ class MinecraftPlayerInventoryContainerTest {
         assertInstanceOf(ReceivabilityResult.Success.class, result);
     }
 
+    @Test
+    void itemIdWithoutNamespaceIsReceivedUnderTheDefaultNamespace() {
+        MinecraftPlayerInventoryContainer container = container(List.of(ItemStack.EMPTY));
+
+        ReceivabilityResult result = container.canReceive(values(descriptor("stone", 64)));
+
+        assertInstanceOf(ReceivabilityResult.Success.class, result);
+    }
+
     @Test
     void partialMatchingStackCanReceiveMore() {
         MinecraftPlayerInventoryContainer container = container(List.of(new ItemStack(Items.STONE, 60)));
@@ -235,6 +262,24 @@ class MinecraftPlayerInventoryContainerTest {
         assertInstanceOf(SimulationResult.Success.class, result);
     }
 
+    @Test
+    void selfSwapSimulatesBothSidesAgainstOneViewLikeApplication() {
+        List<ItemStack> slots = mutableSlots(new ItemStack(Items.STONE, 8), ItemStack.EMPTY);
+        MinecraftPlayerInventoryContainer container = container(slots);
+        TransferableValueSet stone = values(descriptor("minecraft:stone", 8));
+
+        SimulationResult.Failed simulated = assertInstanceOf(
+                SimulationResult.Failed.class,
+                container.simulateAtomicSwap(container, stone, stone));
+        MutationApplicationResult.Failed applied = assertInstanceOf(
+                MutationApplicationResult.Failed.class,
+                container.applyAtomicSwap(container, stone, stone));
+
+        assertEquals(MinecraftPlayerInventoryContainer.VALUE_NOT_REMOVABLE, simulated.reasonCode());
+        assertEquals(MinecraftPlayerInventoryContainer.VALUE_NOT_REMOVABLE, applied.reasonCode());
+        assertEquals(8, slots.get(0).getCount());
+    }
+
     @Test
     void simulationDoesNotMutateEitherInventory() throws CommandSyntaxException {
         ItemStack firstStone = new ItemStack(Items.STONE, 5);
@@ -255,6 +300,31 @@ class MinecraftPlayerInventoryContainerTest {
         assertEquals(5, secondDirt.getCount());
     }
 
+    @Test
+    void simulationDoesNotMutateLiveStacksItPartiallyDrainsOrMergesInto() {
+        ItemStack firstStone = new ItemStack(Items.STONE, 10);
+        ItemStack firstDirt = new ItemStack(Items.DIRT, 30);
+        ItemStack secondDirt = new ItemStack(Items.DIRT, 10);
+        ItemStack secondStone = new ItemStack(Items.STONE, 20);
+        List<ItemStack> firstSlots = mutableSlots(firstStone, firstDirt);
+        List<ItemStack> secondSlots = mutableSlots(secondDirt, secondStone);
+        MinecraftPlayerInventoryContainer first = container(firstSlots);
+        MinecraftPlayerInventoryContainer second = container(secondSlots);
+
+        SimulationResult result = first.simulateAtomicSwap(
+                second,
+                values(descriptor("minecraft:stone", 4)),
+                values(descriptor("minecraft:dirt", 6)));
+
+        assertInstanceOf(SimulationResult.Success.class, result);
+        assertEquals(10, firstStone.getCount());
+        assertEquals(30, firstDirt.getCount());
+        assertEquals(10, secondDirt.getCount());
+        assertEquals(20, secondStone.getCount());
+        assertEquals(List.of(firstStone, firstDirt), firstSlots);
+        assertEquals(List.of(secondDirt, secondStone), secondSlots);
+    }
+
     @Test
     void simulationFailsWhenThisContainerLacksOutgoingValues() {
         MinecraftPlayerInventoryContainer first = container(List.of(new ItemStack(Items.DIRT, 5), ItemStack.EMPTY));
@@ -501,6 +571,77 @@ class MinecraftPlayerInventoryContainerTest {
         assertEquals(5, driftedSlots.get(0).getCount());
     }
 
+    @Test
+    void inPlaceDriftOfSimulatedSlotIsRevalidatedBeforeMutation() {
+        AtomicInteger firstResolutions = new AtomicInteger();
+        List<ItemStack> firstSlots = mutableSlots(new ItemStack(Items.STONE, 5), ItemStack.EMPTY);
+        List<ItemStack> secondSlots = mutableSlots(new ItemStack(Items.DIRT, 5), ItemStack.EMPTY);
+        MinecraftPlayerInventoryContainer first = new MinecraftPlayerInventoryContainer(
+                "player:" + PLAYER_ID + ":inventory:main",
+                MinecraftPlayerInventoryContainer.Region.MAIN,
+                () -> {
+                    if (firstResolutions.getAndIncrement() == 1) {
+                        firstSlots.get(0).setCount(2);
+                    }
+                    return Optional.of(firstSlots);
+                });
+        MinecraftPlayerInventoryContainer second = container(secondSlots);
+
+        MutationApplicationResult result = first.applyAtomicSwap(
+                second,
+                values(descriptor("minecraft:stone", 3)),
+                values(descriptor("minecraft:dirt", 3)));
+
+        MutationApplicationResult.Unknown unknown = assertInstanceOf(MutationApplicationResult.Unknown.class, result);
+        assertEquals(MinecraftPlayerInventoryContainer.VALUE_NOT_REMOVABLE, unknown.reasonCode());
+        assertEquals(2, firstSlots.get(0).getCount());
+        assertEquals(5, secondSlots.get(0).getCount());
+        assertEquals(0, secondSlots.get(1).getCount());
+    }
+
+    @Test
+    void contentHashMovesWithInPlaceCountAndNbtEdits() throws CommandSyntaxException {
+        List<ItemStack> slots = mutableSlots(stackWithNbt(Items.STONE, 5, "{custom:1b}"), ItemStack.EMPTY);
+        long initial = MinecraftPlayerInventoryContainer.contentHash(slots);
+
+        slots.get(0).getNbt().putByte("custom", (byte) 2);
+        long afterNbtEdit = MinecraftPlayerInventoryContainer.contentHash(slots);
+        slots.get(0).decrement(1);
+        long afterCountEdit = MinecraftPlayerInventoryContainer.contentHash(slots);
+
+        assertNotEquals(initial, afterNbtEdit);
+        assertNotEquals(afterNbtEdit, afterCountEdit);
+        assertEquals(afterCountEdit, MinecraftPlayerInventoryContainer.contentHash(
+                mutableSlots(stackWithNbt(Items.STONE, 4, "{custom:2b}"), ItemStack.EMPTY)));
+    }
+
+    @Test
+    void inPlaceNbtDriftOfSimulatedSlotIsRevalidatedBeforeMutation() throws CommandSyntaxException {
+        AtomicInteger firstResolutions = new AtomicInteger();
+        List<ItemStack> firstSlots = mutableSlots(stackWithNbt(Items.STONE, 5, "{custom:1b}"), ItemStack.EMPTY);
+        List<ItemStack> secondSlots = mutableSlots(new ItemStack(Items.DIRT, 5), ItemStack.EMPTY);
+        MinecraftPlayerInventoryContainer first = new MinecraftPlayerInventoryContainer(
+                "player:" + PLAYER_ID + ":inventory:main",
+                MinecraftPlayerInventoryContainer.Region.MAIN,
+                () -> {
+                    if (firstResolutions.getAndIncrement() == 1) {
+                        firstSlots.get(0).getNbt().putByte("custom", (byte) 2);
+                    }
+                    return Optional.of(firstSlots);
+                });
+        MinecraftPlayerInventoryContainer second = container(secondSlots);
+
+        MutationApplicationResult result = first.applyAtomicSwap(
+                second,
+                values(new MinecraftItemDescriptor("minecraft:stone", 3, Optional.of("{custom:1b}"))),
+                values(descriptor("minecraft:dirt", 3)));
+
+        MutationApplicationResult.Unknown unknown = assertInstanceOf(MutationApplicationResult.Unknown.class, result);
+        assertEquals(MinecraftPlayerInventoryContainer.VALUE_NOT_REMOVABLE, unknown.reasonCode());
+        assertEquals(5, firstSlots.get(0).getCount());
+        assertEquals(5, secondSlots.get(0).getCount());
+    }
+
     @Test
     void noSuccessIsReportedForPartialUncertainApplication() {
         List<ItemStack> firstSlots = mutableSlots(new ItemStack(Items.STONE, 64), new ItemStack(Items.DIAMOND, 64), ItemStack.EMPTY);
@@ -560,9 +701,69 @@ class MinecraftPlayerInventoryContainerTest {
         assertEquals(7, outsideBoundary.getCount());
     }
 
+    @Test
+    void slotsEmptiedByRemovalAreReusedForIncomingValuesInSlotOrder() {
+        List<ItemStack> firstSlots = mutableSlots(
+                new ItemStack(Items.STONE, 64),
+                new ItemStack(Items.DIAMOND, 1),
+                new ItemStack(Items.STONE, 10));
+        List<ItemStack> secondSlots = mutableSlots(new ItemStack(Items.DIRT, 64), new ItemStack(Items.DIRT, 6), ItemStack.EMPTY);
+        MinecraftPlayerInventoryContainer first = container(firstSlots);
+        MinecraftPlayerInventoryContainer second = container(secondSlots);
+
+        MutationApplicationResult result = first.applyAtomicSwap(
+                second,
+                values(descriptor("minecraft:stone", 74)),
+                values(descriptor("minecraft:dirt", 70)));
+
+        assertInstanceOf(MutationApplicationResult.Success.class, result);
+        assertEquals(Items.DIRT, firstSlots.get(0).getItem());
+        assertEquals(64, firstSlots.get(0).getCount());
+        assertEquals(Items.DIAMOND, firstSlots.get(1).getItem());
+        assertEquals(Items.DIRT, firstSlots.get(2).getItem());
+        assertEquals(6, firstSlots.get(2).getCount());
+        assertEquals(Items.STONE, secondSlots.get(0).getItem());
+        assertEquals(64, secondSlots.get(0).getCount());
+        assertEquals(Items.STONE, secondSlots.get(1).getItem());
+        assertEquals(10, secondSlots.get(1).getCount());
+        assertEquals(0, secondSlots.get(2).getCount());
+    }
+
+    @Test
+    void bulkTransferMovesWholeStacksWithoutCopying() {
+        List<ItemStack> firstSlots = new ArrayList<>();
+        for (int slot = 0; slot < 36; slot++) {
+            firstSlots.add(new ItemStack(Items.COBBLESTONE, 64));
+        }
+        List<ItemStack> originalStacks = List.copyOf(firstSlots);
+        List<ItemStack> secondSlots = new ArrayList<>();
+        secondSlots.add(new ItemStack(Items.DIAMOND, 1));
+        for (int slot = 0; slot < 36; slot++) {
+            secondSlots.add(ItemStack.EMPTY);
+        }
+        MinecraftPlayerInventoryContainer first = container(firstSlots);
+        MinecraftPlayerInventoryContainer second = container(secondSlots);
+
+        MutationApplicationResult result = first.applyAtomicSwap(
+                second,
+                values(descriptor("minecraft:cobblestone", 2304)),
+                values(descriptor("minecraft:diamond", 1)));
+
+        assertInstanceOf(MutationApplicationResult.Success.class, result);
+        assertEquals(Items.DIAMOND, firstSlots.get(0).getItem());
+        for (int slot = 1; slot < 36; slot++) {
+            assertTrue(firstSlots.get(slot).isEmpty());
+        }
+        for (int slot = 0; slot < 36; slot++) {
+            assertSame(originalStacks.get(slot), secondSlots.get(slot));
+            assertEquals(64, secondSlots.get(slot).getCount());
+        }
+        assertTrue(secondSlots.get(36).isEmpty());
+    }
+
     private static MinecraftPlayerInventoryContainer container(List<ItemStack> slots) {
         return new MinecraftPlayerInventoryContainer(
-                PLAYER_ID,
+                new UUID(0L, NEXT_PLAYER.incrementAndGet()),
                 MinecraftPlayerInventoryContainer.Region.MAIN,
                 slots);
     }
@@ -0,0 +1,111 @@
+package dev.coffer.minecraft.bindings.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import java.util.List;
+import java.util.Optional;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import net.minecraft.nbt.NbtDouble;
+import net.minecraft.nbt.NbtFloat;
+import net.minecraft.nbt.StringNbtReader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class MinecraftStackNbtHashMemoTest {
+    @BeforeAll
+    static void bootstrapMinecraftRegistries() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void structuralHashIgnoresKeyOrderButNotValues() throws CommandSyntaxException {
+        long ordered = MinecraftNbtCanonicalForm.structuralHash(StringNbtReader.parse("{a:1,b:[\"x\",\"y\"]}"));
+        long reordered = MinecraftNbtCanonicalForm.structuralHash(StringNbtReader.parse("{b:[\"x\",\"y\"],a:1}"));
+        long listReordered = MinecraftNbtCanonicalForm.structuralHash(StringNbtReader.parse("{a:1,b:[\"y\",\"x\"]}"));
+        long retyped = MinecraftNbtCanonicalForm.structuralHash(StringNbtReader.parse("{a:1b,b:[\"x\",\"y\"]}"));
+
+        assertEquals(ordered, reordered);
+        assertNotEquals(ordered, listReordered);
+        assertNotEquals(ordered, retyped);
+    }
+
+    @Test
+    void structuralHashTreatsSignedZerosAndNaNPayloadsAlike() throws CommandSyntaxException {
+        assertEquals(
+                MinecraftNbtCanonicalForm.structuralHash(StringNbtReader.parse("{a:0.0d,b:0.0f}")),
+                MinecraftNbtCanonicalForm.structuralHash(StringNbtReader.parse("{a:-0.0d,b:-0.0f}")));
+        assertEquals(
+                MinecraftNbtCanonicalForm.structuralHash(NbtDouble.of(Double.NaN)),
+                MinecraftNbtCanonicalForm.structuralHash(NbtDouble.of(Double.longBitsToDouble(0x7ff8000000000001L))));
+        assertEquals(
+                MinecraftNbtCanonicalForm.structuralHash(NbtFloat.of(Float.NaN)),
+                MinecraftNbtCanonicalForm.structuralHash(NbtFloat.of(Float.intBitsToFloat(0x7fc00001))));
+    }
+
+    @Test
+    void negativeZeroStackMatchesZeroDescriptorInsideAScope() throws CommandSyntaxException {
+        ItemStack stack = new ItemStack(Items.STONE, 1);
+        stack.setNbt(StringNbtReader.parse("{custom:-0.0d}"));
+        MinecraftItemDescriptor descriptor = new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of("{custom:0.0d}"));
+
+        try (MinecraftStackNbtHashMemo ignored = MinecraftStackNbtHashMemo.open()) {
+            assertTrue(MinecraftItemMatcher.matches(stack, descriptor));
+        }
+    }
+
+    @Test
+    void contentHashReusesStackHashesFromTheOpenScope() throws CommandSyntaxException {
+        ItemStack stack = new ItemStack(Items.STONE, 1);
+        stack.setNbt(StringNbtReader.parse("{custom:1b}"));
+        List<ItemStack> slots = List.of(stack, ItemStack.EMPTY);
+        long unscoped = MinecraftPlayerInventoryContainer.contentHash(slots);
+
+        try (MinecraftStackNbtHashMemo memo = MinecraftStackNbtHashMemo.open()) {
+            assertEquals(unscoped, MinecraftPlayerInventoryContainer.contentHash(slots));
+            assertEquals(unscoped, MinecraftPlayerInventoryContainer.contentHash(slots));
+
+            assertEquals(new MinecraftStackNbtHashMemo.Statistics(1, 1, 1), memo.statistics());
+        }
+    }
+
+    @Test
+    void stackHashesAreComputedOncePerScope() throws CommandSyntaxException {
+        ItemStack stack = new ItemStack(Items.STONE, 1);
+        stack.setNbt(StringNbtReader.parse("{custom:1b}"));
+        MinecraftItemDescriptor matching = new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of("{custom:1b}"));
+        MinecraftItemDescriptor mismatching = new MinecraftItemDescriptor("minecraft:stone", 1, Optional.of("{custom:2b}"));
+
+        try (MinecraftStackNbtHashMemo memo = MinecraftStackNbtHashMemo.open()) {
+            assertTrue(MinecraftItemMatcher.matches(stack, matching));
+            assertFalse(MinecraftItemMatcher.matches(stack, mismatching));
+            assertTrue(MinecraftItemMatcher.matches(stack, matching));
+
+            assertEquals(new MinecraftStackNbtHashMemo.Statistics(1, 2, 1), memo.statistics());
+        }
+
+        assertTrue(MinecraftStackNbtHashMemo.hash(stack).isEmpty());
+        assertTrue(MinecraftItemMatcher.matches(stack, matching));
+    }
+
+    @Test
+    void nestedScopesRestoreTheEnclosingMemo() {
+        ItemStack stack = new ItemStack(Items.STONE, 1);
+
+        try (MinecraftStackNbtHashMemo outer = MinecraftStackNbtHashMemo.open()) {
+            try (MinecraftStackNbtHashMemo inner = MinecraftStackNbtHashMemo.open()) {
+                MinecraftStackNbtHashMemo.hash(stack);
+                assertEquals(1, inner.statistics().size());
+            }
+            MinecraftStackNbtHashMemo.hash(stack);
+            assertEquals(1, outer.statistics().computedHashes());
+        }
+    }
+}
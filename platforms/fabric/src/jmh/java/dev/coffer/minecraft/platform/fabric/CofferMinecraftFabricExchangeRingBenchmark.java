@@ -0,0 +1,92 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class CofferMinecraftFabricExchangeRingBenchmark {
+    private static final int PRODUCERS = 8;
+    private static final Object EXCHANGE = new Object();
+    private static final String SUBMITTER = "submitter";
+    private static final BiConsumer<Object, String> DISCARD = (exchange, submitter) -> {
+    };
+
+    @State(Scope.Group)
+    public static class LinkedIngress {
+        @Param({"1024"})
+        public int capacity;
+
+        @Param({"64"})
+        public int batch;
+
+        final Queue<Object> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger depth = new AtomicInteger();
+    }
+
+    @State(Scope.Group)
+    public static class RingIngress {
+        @Param({"1024"})
+        public int capacity;
+
+        @Param({"64"})
+        public int batch;
+
+        CofferMinecraftFabricExchangeRing<Object> ring;
+
+        @Setup
+        public void setUp() {
+            ring = new CofferMinecraftFabricExchangeRing<>(capacity);
+        }
+    }
+
+    @Benchmark
+    @Group("linked")
+    @GroupThreads(PRODUCERS)
+    public boolean linkedOffer(LinkedIngress ingress) {
+        if (ingress.depth.incrementAndGet() > ingress.capacity) {
+            ingress.depth.decrementAndGet();
+            return false;
+        }
+        return ingress.queue.add(EXCHANGE);
+    }
+
+    @Benchmark
+    @Group("linked")
+    @GroupThreads(1)
+    public int linkedPoll(LinkedIngress ingress) {
+        int count = 0;
+        while (count < ingress.batch && ingress.queue.poll() != null) {
+            ingress.depth.decrementAndGet();
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(PRODUCERS)
+    public boolean ringOffer(RingIngress ingress) {
+        return ingress.ring.offer(EXCHANGE, SUBMITTER);
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(1)
+    public int ringDrain(RingIngress ingress) {
+        return ingress.ring.drain(DISCARD, ingress.batch);
+    }
+}
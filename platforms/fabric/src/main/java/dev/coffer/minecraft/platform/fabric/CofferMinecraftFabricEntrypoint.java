@@ -1,10 +1,12 @@
 package dev.coffer.minecraft.platform.fabric;
 
+import dev.coffer.minecraft.bindings.inventory.MinecraftCompiledItemCache;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import org.coffer.core.model.request.ExchangePayload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +41,7 @@ public final class CofferMinecraftFabricEntrypoint implements ModInitializer {
         initializedService.initialize();
         service = initializedService;
         ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            MinecraftCompiledItemCache.shared().invalidate();
             initializedService.attachServer(server);
             java.nio.file.Path runDirectory = server.getRunDirectory().toPath();
             emitLifecycleRecord(runDirectory, true);
@@ -51,7 +54,13 @@ public final class CofferMinecraftFabricEntrypoint implements ModInitializer {
             emitLifecycleRecord(server.getRunDirectory().toPath(), false);
             initializedService.detachServer();
         });
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register(
+                (server, resourceManager, success) -> MinecraftCompiledItemCache.shared().invalidate());
         ServerTickEvents.END_SERVER_TICK.register(initializedService::drainPendingExchanges);
+        ServerPlayConnectionEvents.JOIN.register(
+                (handler, sender, server) -> initializedService.playerJoined(handler.getPlayer()));
+        ServerPlayConnectionEvents.DISCONNECT.register(
+                (handler, server) -> initializedService.playerDisconnected(handler.getPlayer()));
     }
 
     private static void emitLifecycleRecord(java.nio.file.Path runDirectory, boolean started) {
@@ -0,0 +1,58 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Players shared between exchanges. An exchange is only worth preparing on a snapshot when no other exchange in
+ * the drain touches its players, and none of them was shared in the previous drain; otherwise the first
+ * application moves the shared inventory and every later snapshot of it is stale. Only the draining thread
+ * touches it.
+ */
+final class CofferMinecraftFabricExchangeContention {
+    private final Set<UUID> touched = new HashSet<>();
+    private final Set<UUID> shared = new HashSet<>();
+    private final Set<UUID> contended = new HashSet<>();
+    private final LongAdder exclusiveExchanges = new LongAdder();
+    private final LongAdder contendedExchanges = new LongAdder();
+
+    /** Records the exchange's players and reports whether it has them to itself. */
+    boolean claim(Collection<UUID> playerIds) {
+        Objects.requireNonNull(playerIds, "playerIds");
+
+        boolean exclusive = true;
+        for (UUID playerId : playerIds) {
+            if (!touched.add(playerId)) {
+                shared.add(playerId);
+                exclusive = false;
+            } else if (contended.contains(playerId)) {
+                exclusive = false;
+            }
+        }
+        if (exclusive) {
+            exclusiveExchanges.increment();
+        } else {
+            contendedExchanges.increment();
+        }
+        return exclusive;
+    }
+
+    /** Ends the drain: players shared in it stay contended for the next one. */
+    void drained() {
+        contended.clear();
+        contended.addAll(shared);
+        shared.clear();
+        touched.clear();
+    }
+
+    Statistics statistics() {
+        return new Statistics(exclusiveExchanges.sum(), contendedExchanges.sum(), contended.size());
+    }
+
+    record Statistics(long exclusiveExchanges, long contendedExchanges, int contendedPlayers) {
+    }
+}
@@ -0,0 +1,258 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Completes every admitted exchange on the draining thread. An exchange prepared on a worker stays parked in
+ * the queue meanwhile, so its submitter's later exchanges wait for it and its application counts against the
+ * drain budget like any other. Once nothing else is ready, a drain waits out its remaining time budget for
+ * workers to return, so most preparations are applied in the drain that handed them out.
+ */
+final class CofferMinecraftFabricExchangeDispatcher<E, P> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CofferMinecraftFabricExchangeDispatcher.class);
+    static final String EXCHANGE_QUEUE_FULL = "EXCHANGE_QUEUE_FULL";
+    static final String SUBMITTER_QUOTA_EXCEEDED = "SUBMITTER_QUOTA_EXCEEDED";
+    static final String SERVER_UNAVAILABLE = "SERVER_UNAVAILABLE";
+    static final String SERVER_DETACHED = "SERVER_DETACHED";
+
+    private static final long DETACHED = 0;
+
+    private final CofferMinecraftFabricExchangeQueue<Dispatch<E, P>> queue;
+    private final Optional<Executor> workers;
+    private final Function<E, String> submitters;
+    private final Function<E, String> payloadIds;
+    private final AtomicLong attachments = new AtomicLong();
+    private final LongAdder offloaded = new LongAdder();
+    private final LongAdder offloadRejections = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Semaphore returns = new Semaphore(0);
+    private volatile long attachment = DETACHED;
+
+    CofferMinecraftFabricExchangeDispatcher(
+            CofferMinecraftFabricExchangeQueue.DrainBudget budget,
+            CofferMinecraftFabricExchangeQueue.AdmissionLimits limits,
+            LongSupplier nanoTime,
+            Optional<Executor> workers,
+            Function<E, String> submitters,
+            Function<E, String> payloadIds) {
+        this.queue = new CofferMinecraftFabricExchangeQueue<>(budget, limits, nanoTime);
+        this.workers = Objects.requireNonNull(workers, "workers");
+        this.submitters = Objects.requireNonNull(submitters, "submitters");
+        this.payloadIds = Objects.requireNonNull(payloadIds, "payloadIds");
+    }
+
+    void attach() {
+        attachment = attachments.incrementAndGet();
+    }
+
+    void detach(String reasonCode) {
+        Objects.requireNonNull(reasonCode, "reasonCode");
+
+        attachment = DETACHED;
+        Dispatch<E, P> dispatch;
+        while ((dispatch = queue.poll()) != null) {
+            LOGGER.warn(
+                    "Fabric queued exchange unavailable during detach; payloadId={}, reasonCode={}",
+                    payloadIds.apply(dispatch.exchange()),
+                    reasonCode);
+            dispatch.future().complete(unavailable(reasonCode));
+        }
+    }
+
+    CompletableFuture<FabricCofferExecutionResult> submit(E exchange) {
+        Objects.requireNonNull(exchange, "exchange");
+        String payloadId = payloadIds.apply(exchange);
+
+        long current = attachment;
+        if (current == DETACHED) {
+            LOGGER.warn("Fabric exchange enqueue unavailable; payloadId={}, reasonCode={}", payloadId, SERVER_UNAVAILABLE);
+            return CompletableFuture.completedFuture(unavailable(SERVER_UNAVAILABLE));
+        }
+
+        CompletableFuture<FabricCofferExecutionResult> result = new CompletableFuture<>();
+        Dispatch<E, P> dispatch = new Dispatch<>(exchange, submitters.apply(exchange), result, current, Optional.empty());
+        CofferMinecraftFabricExchangeQueue.Admission admission = queue.offer(dispatch, dispatch.submitter());
+        if (admission != CofferMinecraftFabricExchangeQueue.Admission.ACCEPTED) {
+            String reasonCode = admission == CofferMinecraftFabricExchangeQueue.Admission.QUEUE_FULL
+                    ? EXCHANGE_QUEUE_FULL
+                    : SUBMITTER_QUOTA_EXCEEDED;
+            CofferMinecraftFabricExchangeQueue.Statistics statistics = queue.statistics();
+            LOGGER.warn(
+                    "Fabric exchange enqueue rejected; payloadId={}, reasonCode={}, queueDepth={}, rejectedQueueFull={}, rejectedSubmitterQuota={}",
+                    payloadId,
+                    reasonCode,
+                    statistics.queueDepth(),
+                    statistics.rejectedQueueFull(),
+                    statistics.rejectedSubmitterQuota());
+            return CompletableFuture.completedFuture(unavailable(reasonCode));
+        }
+        if (attachment != current && queue.remove(dispatch)) {
+            LOGGER.warn("Fabric exchange enqueue unavailable after server detach; payloadId={}, reasonCode={}", payloadId, SERVER_DETACHED);
+            result.complete(unavailable(SERVER_DETACHED));
+        }
+        return result;
+    }
+
+    int drain(Handler<E, P> handler) {
+        Objects.requireNonNull(handler, "handler");
+
+        long current = attachment;
+        returns.drainPermits();
+        return queue.drainOrPark(dispatch -> handle(dispatch, handler, current), this::awaitReturn);
+    }
+
+    private boolean awaitReturn(long remainingNanos) {
+        if (inFlight.get() == 0) {
+            return false;
+        }
+        try {
+            return returns.tryAcquire(remainingNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private boolean handle(Dispatch<E, P> dispatch, Handler<E, P> handler, long current) {
+        String payloadId = payloadIds.apply(dispatch.exchange());
+        if (current == DETACHED || dispatch.attachment() != current) {
+            LOGGER.warn("Fabric queued exchange unavailable during task; payloadId={}, reasonCode={}", payloadId, SERVER_UNAVAILABLE);
+            dispatch.future().complete(unavailable(SERVER_UNAVAILABLE));
+            return true;
+        }
+
+        if (dispatch.prepared().isPresent()) {
+            P prepared;
+            try {
+                prepared = dispatch.prepared().get().join();
+            } catch (CompletionException exception) {
+                LOGGER.error("Fabric prepared exchange completing future exceptionally; payloadId={}", payloadId, exception.getCause());
+                dispatch.future().completeExceptionally(exception.getCause());
+                return true;
+            }
+            complete(payloadId, dispatch.future(), () -> handler.apply(dispatch.exchange(), prepared));
+            return true;
+        }
+
+        Optional<Supplier<P>> preparation = Optional.empty();
+        if (workers.isPresent()) {
+            try {
+                preparation = handler.prepare(dispatch.exchange());
+            } catch (RuntimeException exception) {
+                LOGGER.warn("Fabric exchange preparation failed; payloadId={}, executing on server thread", payloadId, exception);
+            }
+        }
+        if (preparation.isPresent() && offload(dispatch, preparation.get())) {
+            return false;
+        }
+        complete(payloadId, dispatch.future(), () -> handler.execute(dispatch.exchange()));
+        return true;
+    }
+
+    private boolean offload(Dispatch<E, P> dispatch, Supplier<P> preparation) {
+        CompletableFuture<P> prepared = new CompletableFuture<>();
+        inFlight.incrementAndGet();
+        try {
+            workers.get().execute(() -> {
+                try {
+                    prepared.complete(preparation.get());
+                } catch (Throwable throwable) {
+                    prepared.completeExceptionally(throwable);
+                }
+                try {
+                    returned(dispatch.withPrepared(prepared));
+                } finally {
+                    inFlight.decrementAndGet();
+                    returns.release();
+                }
+            });
+        } catch (RejectedExecutionException exception) {
+            inFlight.decrementAndGet();
+            offloadRejections.increment();
+            LOGGER.warn(
+                    "Fabric exchange preparation rejected; payloadId={}, executing on server thread",
+                    payloadIds.apply(dispatch.exchange()));
+            return false;
+        }
+        offloaded.increment();
+        return true;
+    }
+
+    private void returned(Dispatch<E, P> dispatch) {
+        queue.unpark(dispatch, dispatch.submitter());
+        if (attachment != dispatch.attachment() && queue.remove(dispatch)) {
+            LOGGER.warn(
+                    "Fabric prepared exchange unavailable after server detach; payloadId={}, reasonCode={}",
+                    payloadIds.apply(dispatch.exchange()),
+                    SERVER_DETACHED);
+            dispatch.future().complete(unavailable(SERVER_DETACHED));
+        }
+    }
+
+    private static void complete(
+            String payloadId,
+            CompletableFuture<FabricCofferExecutionResult> result,
+            Supplier<FabricCofferExecutionResult> execution) {
+        try {
+            FabricCofferExecutionResult executionResult = execution.get();
+            LOGGER.info(
+                    "Fabric queued exchange completing future; payloadId={}, resultType={}",
+                    payloadId,
+                    executionResult.getClass().getSimpleName());
+            result.complete(executionResult);
+        } catch (Throwable throwable) {
+            LOGGER.error("Fabric queued exchange completing future exceptionally; payloadId={}", payloadId, throwable);
+            result.completeExceptionally(throwable);
+        }
+    }
+
+    private static FabricCofferExecutionResult.Unavailable unavailable(String reasonCode) {
+        return new FabricCofferExecutionResult.Unavailable(reasonCode);
+    }
+
+    CofferMinecraftFabricExchangeQueue.Statistics queueStatistics() {
+        return queue.statistics();
+    }
+
+    Statistics statistics() {
+        return new Statistics(offloaded.sum(), offloadRejections.sum());
+    }
+
+    interface Handler<E, P> {
+        /** Runs on the draining thread; a present supplier runs on a worker and its result goes to {@link #apply}. */
+        Optional<Supplier<P>> prepare(E exchange);
+
+        FabricCofferExecutionResult apply(E exchange, P prepared);
+
+        FabricCofferExecutionResult execute(E exchange);
+    }
+
+    record Statistics(long offloaded, long offloadRejections) {
+    }
+
+    private record Dispatch<E, P>(
+            E exchange,
+            String submitter,
+            CompletableFuture<FabricCofferExecutionResult> future,
+            long attachment,
+            Optional<CompletableFuture<P>> prepared) {
+        Dispatch<E, P> withPrepared(CompletableFuture<P> preparedResult) {
+            return new Dispatch<>(exchange, submitter, future, attachment, Optional.of(preparedResult));
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+final class CofferMinecraftFabricExchangeQueue<T> {
+    static final String MAX_EXCHANGES_PER_TICK_PROPERTY = "coffer.fabric.drain.maxExchangesPerTick";
+    static final String TICK_BUDGET_MILLIS_PROPERTY = "coffer.fabric.drain.tickBudgetMillis";
+    static final int DEFAULT_MAX_EXCHANGES_PER_TICK = 64;
+    static final long DEFAULT_TICK_BUDGET_MILLIS = 10;
+    static final String CAPACITY_PROPERTY = "coffer.fabric.queue.capacity";
+    static final String PER_SUBMITTER_QUOTA_PROPERTY = "coffer.fabric.queue.perSubmitterQuota";
+    static final int DEFAULT_CAPACITY = 1024;
+    static final int DEFAULT_PER_SUBMITTER_QUOTA = 32;
+
+    private static final int RETIRED = -1;
+
+    private final CofferMinecraftFabricExchangeRing<T> incoming;
+    private final Map<String, ArrayDeque<T>> lanes = new HashMap<>();
+    private final ArrayDeque<String> rotation = new ArrayDeque<>();
+    private final Set<String> parked = new HashSet<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Map<String, AtomicInteger> pendingBySubmitter = new ConcurrentHashMap<>();
+    private final DrainBudget budget;
+    private final AdmissionLimits limits;
+    private final LongSupplier nanoTime;
+    private final BiConsumer<T, String> admit = this::admit;
+    private final LongAdder drained = new LongAdder();
+    private final LongAdder carriedOver = new LongAdder();
+    private final LongAdder budgetOverruns = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedSubmitterQuota = new LongAdder();
+    private volatile double lastDrainFairness = 1.0;
+
+    CofferMinecraftFabricExchangeQueue(DrainBudget budget, AdmissionLimits limits, LongSupplier nanoTime) {
+        this.budget = Objects.requireNonNull(budget, "budget");
+        this.limits = Objects.requireNonNull(limits, "limits");
+        this.nanoTime = Objects.requireNonNull(nanoTime, "nanoTime");
+        this.incoming = new CofferMinecraftFabricExchangeRing<>(limits.capacity());
+    }
+
+    Admission offer(T exchange, String submitter) {
+        Objects.requireNonNull(exchange, "exchange");
+        Objects.requireNonNull(submitter, "submitter");
+
+        if (depth.incrementAndGet() > limits.capacity()) {
+            depth.decrementAndGet();
+            rejectedQueueFull.increment();
+            return Admission.QUEUE_FULL;
+        }
+        if (!reserve(submitter)) {
+            depth.decrementAndGet();
+            rejectedSubmitterQuota.increment();
+            return Admission.SUBMITTER_QUOTA_EXCEEDED;
+        }
+        if (!incoming.offer(exchange, submitter)) {
+            released(submitter);
+            rejectedQueueFull.increment();
+            return Admission.QUEUE_FULL;
+        }
+        return Admission.ACCEPTED;
+    }
+
+    private boolean reserve(String submitter) {
+        while (true) {
+            AtomicInteger pending = pendingBySubmitter.computeIfAbsent(submitter, ignored -> new AtomicInteger());
+            int current = pending.get();
+            if (current == RETIRED) {
+                pendingBySubmitter.remove(submitter, pending);
+            } else if (current >= limits.perSubmitterQuota()) {
+                return false;
+            } else if (pending.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    boolean remove(T exchange) {
+        incoming.awaitClaimed();
+        synchronized (lanes) {
+            incoming.drain(admit, incoming.capacity());
+            for (Map.Entry<String, ArrayDeque<T>> lane : lanes.entrySet()) {
+                Iterator<T> candidates = lane.getValue().iterator();
+                while (candidates.hasNext()) {
+                    if (candidates.next() == exchange) {
+                        candidates.remove();
+                        String submitter = lane.getKey();
+                        if (lane.getValue().isEmpty()) {
+                            lanes.remove(submitter);
+                            rotation.remove(submitter);
+                        }
+                        released(submitter);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    T poll() {
+        String submitter;
+        T next;
+        incoming.awaitClaimed();
+        synchronized (lanes) {
+            incoming.drain(admit, incoming.capacity());
+            submitter = rotation.poll();
+            if (submitter == null) {
+                Iterator<String> parkedLanes = lanes.keySet().iterator();
+                if (!parkedLanes.hasNext()) {
+                    return null;
+                }
+                submitter = parkedLanes.next();
+            }
+            ArrayDeque<T> lane = lanes.get(submitter);
+            next = lane.poll();
+            if (lane.isEmpty()) {
+                lanes.remove(submitter);
+            } else if (!parked.contains(submitter)) {
+                rotation.add(submitter);
+            }
+        }
+        released(submitter);
+        return next;
+    }
+
+    /** Parks the submitter until its exchange is finished, so later exchanges never overtake it. */
+    private Lease<T> lease() {
+        synchronized (lanes) {
+            String submitter = rotation.poll();
+            if (submitter == null) {
+                return null;
+            }
+            ArrayDeque<T> lane = lanes.get(submitter);
+            T next = lane.poll();
+            if (lane.isEmpty()) {
+                lanes.remove(submitter);
+            }
+            parked.add(submitter);
+            return new Lease<>(submitter, next);
+        }
+    }
+
+    private void settle(String submitter) {
+        synchronized (lanes) {
+            parked.remove(submitter);
+            if (lanes.containsKey(submitter)) {
+                rotation.add(submitter);
+            }
+        }
+        released(submitter);
+    }
+
+    void unpark(T exchange, String submitter) {
+        Objects.requireNonNull(exchange, "exchange");
+        Objects.requireNonNull(submitter, "submitter");
+
+        synchronized (lanes) {
+            ArrayDeque<T> lane = lanes.get(submitter);
+            boolean waiting = lane != null;
+            if (!waiting) {
+                lane = new ArrayDeque<>();
+                lanes.put(submitter, lane);
+            }
+            lane.addFirst(exchange);
+            if (parked.remove(submitter) || !waiting) {
+                rotation.add(submitter);
+            }
+        }
+    }
+
+    private void admit(T exchange, String submitter) {
+        ArrayDeque<T> lane = lanes.get(submitter);
+        if (lane == null) {
+            lane = new ArrayDeque<>();
+            lanes.put(submitter, lane);
+            if (!parked.contains(submitter)) {
+                rotation.add(submitter);
+            }
+        }
+        lane.add(exchange);
+    }
+
+    private void released(String submitter) {
+        depth.decrementAndGet();
+        AtomicInteger pending = pendingBySubmitter.get(submitter);
+        if (pending != null && pending.decrementAndGet() == 0 && pending.compareAndSet(0, RETIRED)) {
+            pendingBySubmitter.remove(submitter, pending);
+        }
+    }
+
+    int drain(Consumer<T> consumer) {
+        Objects.requireNonNull(consumer, "consumer");
+        return drainOrPark(exchange -> {
+            consumer.accept(exchange);
+            return true;
+        });
+    }
+
+    int drainOrPark(Predicate<? super T> handler) {
+        return drainOrPark(handler, remainingNanos -> false);
+    }
+
+    /**
+     * A handler that returns false parks the exchange: it keeps its admission and its submitter is skipped
+     * until {@link #unpark} hands it back, at which point it is drained again against the budget. Once no
+     * submitter is ready, {@code awaitUnpark} may block for up to the remaining budget; returning true means
+     * an exchange may have come back and the drain carries on.
+     */
+    int drainOrPark(Predicate<? super T> handler, LongPredicate awaitUnpark) {
+        Objects.requireNonNull(handler, "handler");
+        Objects.requireNonNull(awaitUnpark, "awaitUnpark");
+
+        long started = nanoTime.getAsLong();
+        synchronized (lanes) {
+            incoming.drain(admit, incoming.capacity());
+        }
+        long elapsed = 0;
+        int count = 0;
+        int finished = 0;
+        Map<String, Integer> served = new HashMap<>();
+        while (count < budget.maxExchangesPerTick() && elapsed < budget.tickBudgetNanos()) {
+            Lease<T> next = lease();
+            if (next == null) {
+                if (!awaitUnpark.test(budget.tickBudgetNanos() - elapsed)) {
+                    break;
+                }
+                elapsed = nanoTime.getAsLong() - started;
+                continue;
+            }
+            served.merge(next.submitter(), 1, Integer::sum);
+            count++;
+            boolean done = true;
+            try {
+                done = handler.test(next.exchange());
+            } finally {
+                if (done) {
+                    settle(next.submitter());
+                    finished++;
+                }
+            }
+            elapsed = nanoTime.getAsLong() - started;
+        }
+        lastDrainFairness = fairness(served);
+
+        drained.add(finished);
+        if (elapsed > budget.tickBudgetNanos()) {
+            budgetOverruns.increment();
+        }
+        int remaining = depth.get();
+        if (remaining > 0) {
+            carriedOver.add(remaining);
+        }
+        return count;
+    }
+
+    private double fairness(Map<String, Integer> served) {
+        List<String> backlogged;
+        synchronized (lanes) {
+            backlogged = List.copyOf(rotation);
+        }
+        long total = 0;
+        long squares = 0;
+        int submitters = 0;
+        for (String submitter : backlogged) {
+            long count = served.getOrDefault(submitter, 0);
+            total += count;
+            squares += count * count;
+            submitters++;
+        }
+        if (submitters < 2 || squares == 0) {
+            return 1.0;
+        }
+        return (double) (total * total) / (submitters * squares);
+    }
+
+    Statistics statistics() {
+        int activeSubmitters;
+        int parkedSubmitters;
+        synchronized (lanes) {
+            activeSubmitters = lanes.size();
+            parkedSubmitters = parked.size();
+        }
+        return new Statistics(
+                depth.get(),
+                activeSubmitters,
+                drained.sum(),
+                carriedOver.sum(),
+                budgetOverruns.sum(),
+                rejectedQueueFull.sum(),
+                rejectedSubmitterQuota.sum(),
+                lastDrainFairness,
+                parkedSubmitters);
+    }
+
+    record DrainBudget(int maxExchangesPerTick, long tickBudgetNanos) {
+        DrainBudget {
+            if (maxExchangesPerTick <= 0) {
+                throw new IllegalArgumentException("maxExchangesPerTick must be positive");
+            }
+            if (tickBudgetNanos <= 0) {
+                throw new IllegalArgumentException("tickBudgetNanos must be positive");
+            }
+        }
+
+        static DrainBudget fromSystemProperties() {
+            int maxExchangesPerTick = Integer.getInteger(MAX_EXCHANGES_PER_TICK_PROPERTY, DEFAULT_MAX_EXCHANGES_PER_TICK);
+            long tickBudgetMillis = Long.getLong(TICK_BUDGET_MILLIS_PROPERTY, DEFAULT_TICK_BUDGET_MILLIS);
+            return new DrainBudget(
+                    maxExchangesPerTick > 0 ? maxExchangesPerTick : DEFAULT_MAX_EXCHANGES_PER_TICK,
+                    TimeUnit.MILLISECONDS.toNanos(tickBudgetMillis > 0 ? tickBudgetMillis : DEFAULT_TICK_BUDGET_MILLIS));
+        }
+    }
+
+    record AdmissionLimits(int capacity, int perSubmitterQuota) {
+        AdmissionLimits {
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity must be positive");
+            }
+            if (perSubmitterQuota <= 0) {
+                throw new IllegalArgumentException("perSubmitterQuota must be positive");
+            }
+        }
+
+        static AdmissionLimits fromSystemProperties() {
+            int capacity = Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY);
+            int perSubmitterQuota = Integer.getInteger(PER_SUBMITTER_QUOTA_PROPERTY, DEFAULT_PER_SUBMITTER_QUOTA);
+            return new AdmissionLimits(
+                    capacity > 0 ? capacity : DEFAULT_CAPACITY,
+                    perSubmitterQuota > 0 ? perSubmitterQuota : DEFAULT_PER_SUBMITTER_QUOTA);
+        }
+    }
+
+    enum Admission {
+        ACCEPTED,
+        QUEUE_FULL,
+        SUBMITTER_QUOTA_EXCEEDED
+    }
+
+    record Statistics(
+            int queueDepth,
+            int activeSubmitters,
+            long drained,
+            long carriedOver,
+            long budgetOverruns,
+            long rejectedQueueFull,
+            long rejectedSubmitterQuota,
+            double lastDrainFairness,
+            int parkedSubmitters) {
+    }
+
+    private record Lease<T>(String submitter, T exchange) {
+    }
+}
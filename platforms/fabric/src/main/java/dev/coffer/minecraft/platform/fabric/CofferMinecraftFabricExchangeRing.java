@@ -0,0 +1,107 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+
+/** Producers may offer concurrently; callers must ensure only one thread drains at a time. */
+final class CofferMinecraftFabricExchangeRing<E> {
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private final AtomicReferenceArray<E> slots;
+    private final String[] submitters;
+    private final int mask;
+    private final AtomicLong producerIndex = new AtomicLong();
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    CofferMinecraftFabricExchangeRing(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.submitters = new String[size];
+        this.mask = size - 1;
+    }
+
+    boolean offer(E element, String submitter) {
+        Objects.requireNonNull(element, "element");
+        Objects.requireNonNull(submitter, "submitter");
+
+        long sequence = claim();
+        if (sequence < 0) {
+            return false;
+        }
+        publish(sequence, element, submitter);
+        return true;
+    }
+
+    long claim() {
+        long sequence;
+        do {
+            sequence = producerIndex.get();
+            if (sequence - consumerIndex.getAcquire() >= slots.length()) {
+                return -1;
+            }
+        } while (!producerIndex.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    void publish(long sequence, E element, String submitter) {
+        int offset = (int) sequence & mask;
+        submitters[offset] = submitter;
+        slots.setRelease(offset, element);
+    }
+
+    /** Stops at the first claimed slot whose producer has not published yet. */
+    int drain(BiConsumer<? super E, String> consumer, int limit) {
+        Objects.requireNonNull(consumer, "consumer");
+
+        long sequence = consumerIndex.getPlain();
+        int count = 0;
+        try {
+            while (count < limit) {
+                int offset = (int) (sequence + count) & mask;
+                E element = slots.getAcquire(offset);
+                if (element == null) {
+                    break;
+                }
+                String submitter = submitters[offset];
+                submitters[offset] = null;
+                slots.setPlain(offset, null);
+                count++;
+                consumer.accept(element, submitter);
+            }
+        } finally {
+            if (count > 0) {
+                consumerIndex.setRelease(sequence + count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Spins until every slot claimed before the call is published or consumed, so a following drain reaches
+     * everything offered so far. Callers must not hold the lock their drains take while waiting here.
+     */
+    void awaitClaimed() {
+        long claimed = producerIndex.get();
+        for (long sequence = consumerIndex.getAcquire(); sequence < claimed; sequence++) {
+            int offset = (int) sequence & mask;
+            while (slots.getAcquire(offset) == null && consumerIndex.getAcquire() <= sequence) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    int size() {
+        long consumed = consumerIndex.getAcquire();
+        long claimed = producerIndex.get();
+        return (int) Math.max(0, Math.min(claimed - consumed, slots.length()));
+    }
+
+    int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,88 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import dev.coffer.minecraft.bindings.inventory.MinecraftPlayerInventoryContainer;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+
+final class CofferMinecraftFabricInventorySnapshot {
+    private final long version;
+    private final Map<MinecraftPlayerInventoryContainer.Region, List<ItemStack>> regions;
+
+    private CofferMinecraftFabricInventorySnapshot(
+            long version,
+            Map<MinecraftPlayerInventoryContainer.Region, List<ItemStack>> regions) {
+        this.version = version;
+        this.regions = regions;
+    }
+
+    /**
+     * Copies only the given regions; the version is the live inventory stamp the copy was taken at. Empty when
+     * the regions hold more than {@code maxStacks} stacks, which are then cheaper to arbitrate in place.
+     */
+    static Optional<CofferMinecraftFabricInventorySnapshot> capture(
+            long version,
+            Collection<MinecraftPlayerInventoryContainer.Region> touchedRegions,
+            Function<MinecraftPlayerInventoryContainer.Region, List<ItemStack>> liveSlots,
+            int maxStacks) {
+        Objects.requireNonNull(touchedRegions, "touchedRegions");
+        Objects.requireNonNull(liveSlots, "liveSlots");
+
+        Map<MinecraftPlayerInventoryContainer.Region, List<ItemStack>> lives =
+                new EnumMap<>(MinecraftPlayerInventoryContainer.Region.class);
+        int stacks = 0;
+        for (MinecraftPlayerInventoryContainer.Region region : touchedRegions) {
+            List<ItemStack> live = liveSlots.apply(region);
+            for (ItemStack stack : live) {
+                if (!stack.isEmpty() && ++stacks > maxStacks) {
+                    return Optional.empty();
+                }
+            }
+            lives.put(region, live);
+        }
+
+        Map<MinecraftPlayerInventoryContainer.Region, List<ItemStack>> regions =
+                new EnumMap<>(MinecraftPlayerInventoryContainer.Region.class);
+        for (Map.Entry<MinecraftPlayerInventoryContainer.Region, List<ItemStack>> region : lives.entrySet()) {
+            List<ItemStack> live = region.getValue();
+            ItemStack[] copies = new ItemStack[live.size()];
+            for (int slot = 0; slot < copies.length; slot++) {
+                ItemStack stack = live.get(slot);
+                copies[slot] = stack.isEmpty() ? ItemStack.EMPTY : stack.copy();
+            }
+            regions.put(region.getKey(), List.of(copies));
+        }
+        return Optional.of(new CofferMinecraftFabricInventorySnapshot(version, regions));
+    }
+
+    /**
+     * The inventory version stamp. It folds slot contents with the vanilla change counter rather than the
+     * server tick, so it stays comparable across ticks. It walks every slot; drains read it through
+     * {@link CofferMinecraftFabricInventoryVersions}.
+     */
+    static long version(PlayerInventory inventory) {
+        Objects.requireNonNull(inventory, "inventory");
+        long content = MinecraftPlayerInventoryContainer.contentHash(inventory.main)
+                ^ 31L * MinecraftPlayerInventoryContainer.contentHash(inventory.armor)
+                ^ 961L * MinecraftPlayerInventoryContainer.contentHash(inventory.offHand);
+        return content * 31L + inventory.getChangeCount();
+    }
+
+    long version() {
+        return version;
+    }
+
+    boolean isCurrent(long liveVersion) {
+        return liveVersion == version;
+    }
+
+    Optional<List<ItemStack>> slots(MinecraftPlayerInventoryContainer.Region region) {
+        return Optional.ofNullable(regions.get(Objects.requireNonNull(region, "region")));
+    }
+}
@@ -0,0 +1,61 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import net.minecraft.entity.player.PlayerInventory;
+
+/**
+ * Inventory version stamps cached for one drain. The first lookup folds the contents, so stamps stay comparable
+ * across ticks; later lookups are O(1) until the drain itself mutates the inventory. Only the draining thread
+ * touches it, and nothing else writes player inventories while a drain runs.
+ */
+final class CofferMinecraftFabricInventoryVersions {
+    private final Map<UUID, Long> versions = new HashMap<>();
+    private final LongAdder computedVersions = new LongAdder();
+    private final LongAdder reusedVersions = new LongAdder();
+
+    long version(UUID playerId, PlayerInventory inventory) {
+        Objects.requireNonNull(playerId, "playerId");
+        Objects.requireNonNull(inventory, "inventory");
+
+        Long known = versions.get(playerId);
+        if (known != null) {
+            reusedVersions.increment();
+            return known;
+        }
+        long version = CofferMinecraftFabricInventorySnapshot.version(inventory);
+        versions.put(playerId, version);
+        computedVersions.increment();
+        return version;
+    }
+
+    /**
+     * Compares against the cached stamp only and never folds, so a snapshot taken in an earlier drain, or one
+     * whose inventory the drain has since mutated, reads as stale.
+     */
+    boolean isCurrent(UUID playerId, CofferMinecraftFabricInventorySnapshot snapshot) {
+        Objects.requireNonNull(playerId, "playerId");
+        Objects.requireNonNull(snapshot, "snapshot");
+
+        Long known = versions.get(playerId);
+        return known != null && snapshot.isCurrent(known);
+    }
+
+    void mutated(UUID playerId) {
+        versions.remove(Objects.requireNonNull(playerId, "playerId"));
+    }
+
+    void clear() {
+        versions.clear();
+    }
+
+    Statistics statistics() {
+        return new Statistics(computedVersions.sum(), reusedVersions.sum(), versions.size());
+    }
+
+    record Statistics(long computedVersions, long reusedVersions, int size) {
+    }
+}
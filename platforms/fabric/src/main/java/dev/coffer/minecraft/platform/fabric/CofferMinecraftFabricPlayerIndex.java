@@ -0,0 +1,61 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+final class CofferMinecraftFabricPlayerIndex {
+    private final Map<UUID, ServerPlayerEntity> players = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder staleEntries = new LongAdder();
+
+    void joined(ServerPlayerEntity player) {
+        Objects.requireNonNull(player, "player");
+        players.put(player.getUuid(), player);
+    }
+
+    void disconnected(ServerPlayerEntity player) {
+        Objects.requireNonNull(player, "player");
+        players.remove(player.getUuid(), player);
+    }
+
+    void clear() {
+        players.clear();
+    }
+
+    Optional<ServerPlayerEntity> find(MinecraftServer server, UUID playerId) {
+        Objects.requireNonNull(server, "server");
+        Objects.requireNonNull(playerId, "playerId");
+
+        ServerPlayerEntity indexed = players.get(playerId);
+        if (indexed != null) {
+            if (!indexed.isRemoved()) {
+                hits.increment();
+                return Optional.of(indexed);
+            }
+            players.remove(playerId, indexed);
+            staleEntries.increment();
+        }
+
+        fallbacks.increment();
+        ServerPlayerEntity managed = server.getPlayerManager().getPlayer(playerId);
+        if (managed == null || managed.isRemoved()) {
+            return Optional.empty();
+        }
+        players.put(playerId, managed);
+        return Optional.of(managed);
+    }
+
+    Statistics statistics() {
+        return new Statistics(hits.sum(), fallbacks.sum(), staleEntries.sum(), players.size());
+    }
+
+    record Statistics(long hits, long fallbacks, long staleEntries, int size) {
+    }
+}
@@ -2,20 +2,30 @@ package dev.coffer.minecraft.platform.fabric;
 
 import dev.coffer.minecraft.bindings.inventory.MinecraftContainerResolver;
 import dev.coffer.minecraft.bindings.inventory.MinecraftDescriptorFactory;
+import dev.coffer.minecraft.bindings.inventory.MinecraftDescriptorInterner;
+import dev.coffer.minecraft.bindings.inventory.MinecraftInventoryValidationMemo;
 import dev.coffer.minecraft.bindings.inventory.MinecraftPlayerInventoryContainer;
 import dev.coffer.minecraft.bindings.inventory.MinecraftRuntimePayloadFactory;
 import dev.coffer.minecraft.bindings.inventory.MinecraftRuntimePayloadInterpreter;
 import dev.coffer.minecraft.bindings.inventory.MinecraftRuntimeValueSetResolver;
+import dev.coffer.minecraft.bindings.inventory.MinecraftStackNbtHashMemo;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
+import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import net.fabricmc.fabric.api.networking.v1.PlayerLookup;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import net.minecraft.entity.player.PlayerInventory;
 import net.minecraft.item.ItemStack;
 import net.minecraft.server.MinecraftServer;
@@ -29,6 +39,7 @@ import org.coffer.core.model.id.OutcomeId;
 import org.coffer.core.model.id.ReasonId;
 import org.coffer.core.model.mutation.MutationPlan;
 import org.coffer.core.model.outcome.Decision;
+import org.coffer.core.model.request.ActorDeclaration;
 import org.coffer.core.model.request.ExchangePayload;
 import org.coffer.core.model.support.OpaqueObject;
 import org.coffer.firstparty.authority.transferablevalue.core.TransferableValueCoreAuthority;
@@ -43,24 +54,53 @@ import org.slf4j.LoggerFactory;
 
 final class CofferMinecraftFabricService implements CofferMinecraftExchangeService {
     private static final Logger LOGGER = LoggerFactory.getLogger(CofferMinecraftFabricService.class);
+    private static final String UNDECLARED_SUBMITTER = "undeclared";
+    static final String SERVICE_SHUTDOWN = "SERVICE_SHUTDOWN";
+    static final String SNAPSHOT_ARBITRATION_PROPERTY = "coffer.fabric.arbitration.snapshot";
+    static final String ARBITRATION_WORKERS_PROPERTY = "coffer.fabric.arbitration.workers";
+    static final String MAX_SNAPSHOT_STACKS_PROPERTY = "coffer.fabric.arbitration.maxSnapshotStacks";
+    static final int DEFAULT_MAX_SNAPSHOT_STACKS = 16;
 
     private final CofferRuntime cofferRuntime;
     private final TransferableValueCoreAuthority transferableValueCoreAuthority;
     private final TransferableValueRuntimeAuthority transferableValueRuntimeAuthority;
     private final AuthorityResolver coreAuthorityResolver;
+    private final AuthorityResolver snapshotAuthorityResolver;
     private final List<RuntimeAuthority> runtimeAuthorities;
-    private final Queue<PendingExchange> pendingExchanges = new ConcurrentLinkedQueue<>();
+    private final MinecraftInventoryValidationMemo validationMemo;
+    private final CofferMinecraftFabricExchangeDispatcher<ExchangePayload, SnapshotArbitration> dispatcher;
     private final ThreadLocal<Boolean> drainingExchangeQueue =
             ThreadLocal.withInitial(() -> Boolean.FALSE);
-    private MinecraftServer server;
+    private final ThreadLocal<ResolutionScope> resolutionScope = new ThreadLocal<>();
+    private final CofferMinecraftFabricPlayerIndex playerIndex = new CofferMinecraftFabricPlayerIndex();
+    private final CofferMinecraftFabricInventoryVersions inventoryVersions = new CofferMinecraftFabricInventoryVersions();
+    private final CofferMinecraftFabricExchangeContention contention = new CofferMinecraftFabricExchangeContention();
+    private final Optional<ExecutorService> arbitrationWorkers;
+    private final int maxSnapshotStacks;
+    private final ThreadLocal<Map<UUID, CofferMinecraftFabricInventorySnapshot>> arbitrationSnapshots =
+            new ThreadLocal<>();
+    private final LongAdder staleSnapshotArbitrations = new LongAdder();
+    private volatile MinecraftServer server;
     private boolean initialized;
 
     CofferMinecraftFabricService() {
+        this(
+                CofferMinecraftFabricExchangeQueue.DrainBudget.fromSystemProperties(),
+                CofferMinecraftFabricExchangeQueue.AdmissionLimits.fromSystemProperties(),
+                ArbitrationPolicy.fromSystemProperties());
+    }
+
+    CofferMinecraftFabricService(
+            CofferMinecraftFabricExchangeQueue.DrainBudget drainBudget,
+            CofferMinecraftFabricExchangeQueue.AdmissionLimits admissionLimits,
+            ArbitrationPolicy arbitrationPolicy) {
+        Objects.requireNonNull(arbitrationPolicy, "arbitrationPolicy");
         MinecraftContainerResolver containerResolver =
-                new MinecraftContainerResolver(this::resolvePlayerInventorySlots);
-        MinecraftDescriptorFactory descriptorFactory = new MinecraftDescriptorFactory();
-        MinecraftRuntimePayloadFactory runtimePayloadFactory = new MinecraftRuntimePayloadFactory();
-        MinecraftRuntimeValueSetResolver runtimeValueSetResolver = new MinecraftRuntimeValueSetResolver();
+                new MinecraftContainerResolver(new ServerPlayerInventorySlots());
+        MinecraftDescriptorInterner descriptorInterner = new MinecraftDescriptorInterner();
+        MinecraftDescriptorFactory descriptorFactory = new MinecraftDescriptorFactory(descriptorInterner);
+        MinecraftRuntimePayloadFactory runtimePayloadFactory = new MinecraftRuntimePayloadFactory(descriptorInterner);
+        MinecraftRuntimeValueSetResolver runtimeValueSetResolver = new MinecraftRuntimeValueSetResolver(descriptorFactory);
         MinecraftRuntimePayloadInterpreter runtimePayloadInterpreter = new MinecraftRuntimePayloadInterpreter();
 
         this.transferableValueCoreAuthority = new TransferableValueCoreAuthority(
@@ -73,13 +113,42 @@ final class CofferMinecraftFabricService implements CofferMinecraftExchangeServi
                 runtimePayloadInterpreter,
                 reasonCode -> new OpaqueObject(Map.of("reasonCode", reasonCode)));
         this.cofferRuntime = new CofferRuntime();
-        this.coreAuthorityResolver = authority -> {
-            if (transferableValueCoreAuthority.identifiers().contains(authority)) {
-                return new ResolutionResult.Resolved(transferableValueCoreAuthority);
+        this.coreAuthorityResolver = authorityResolver(transferableValueCoreAuthority);
+        this.validationMemo = containerResolver.validationMemo();
+        this.snapshotAuthorityResolver = authorityResolver(new TransferableValueCoreAuthority(
+                new MinecraftContainerResolver(new SnapshotInventorySlots(), validationMemo),
+                descriptorFactory,
+                runtimePayloadFactory));
+        this.runtimeAuthorities = List.of(transferableValueRuntimeAuthority);
+        this.arbitrationWorkers = arbitrationPolicy.snapshotArbitration()
+                ? Optional.of(arbitrationWorkers(arbitrationPolicy.workers()))
+                : Optional.empty();
+        this.maxSnapshotStacks = arbitrationPolicy.maxSnapshotStacks();
+        this.dispatcher = new CofferMinecraftFabricExchangeDispatcher<>(
+                drainBudget,
+                admissionLimits,
+                System::nanoTime,
+                arbitrationWorkers.map(Executor.class::cast),
+                CofferMinecraftFabricService::submitter,
+                exchangePayload -> exchangePayload.payloadId().value());
+    }
+
+    private static AuthorityResolver authorityResolver(TransferableValueCoreAuthority authority) {
+        return identifier -> {
+            if (authority.identifiers().contains(identifier)) {
+                return new ResolutionResult.Resolved(authority);
             }
             return new ResolutionResult.Unresolved();
         };
-        this.runtimeAuthorities = List.of(transferableValueRuntimeAuthority);
+    }
+
+    private static ExecutorService arbitrationWorkers(int workers) {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "coffer-arbitration-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     void initialize() {
@@ -90,21 +159,50 @@ final class CofferMinecraftFabricService implements CofferMinecraftExchangeServi
 
     void attachServer(MinecraftServer server) {
         this.server = server;
+        dispatcher.attach();
         LOGGER.info("Coffer Fabric platform attached server");
     }
 
     void detachServer() {
+        detachServer(CofferMinecraftFabricExchangeDispatcher.SERVER_DETACHED);
+    }
+
+    private void detachServer(String reasonCode) {
         server = null;
-        completePendingUnavailable("SERVER_DETACHED");
-        LOGGER.info("Coffer Fabric platform detached server");
+        CofferMinecraftFabricPlayerIndex.Statistics playerIndexStatistics = playerIndex.statistics();
+        playerIndex.clear();
+        dispatcher.detach(reasonCode);
+        CofferMinecraftFabricExchangeDispatcher.Statistics dispatchStatistics = dispatcher.statistics();
+        CofferMinecraftFabricInventoryVersions.Statistics versionStatistics = inventoryVersions.statistics();
+        CofferMinecraftFabricExchangeContention.Statistics contentionStatistics = contention.statistics();
+        LOGGER.info(
+                "Coffer Fabric platform detached server; reasonCode={}, playerIndexHits={}, playerIndexFallbacks={}, playerIndexStaleEntries={}, computedInventoryVersions={}, reusedInventoryVersions={}, contendedExchanges={}, snapshotArbitrations={}, snapshotArbitrationRejections={}, staleSnapshotArbitrations={}",
+                reasonCode,
+                playerIndexStatistics.hits(),
+                playerIndexStatistics.fallbacks(),
+                playerIndexStatistics.staleEntries(),
+                versionStatistics.computedVersions(),
+                versionStatistics.reusedVersions(),
+                contentionStatistics.contendedExchanges(),
+                dispatchStatistics.offloaded(),
+                dispatchStatistics.offloadRejections(),
+                staleSnapshotArbitrations.sum());
     }
 
     void shutdown() {
-        completePendingUnavailable("SERVICE_SHUTDOWN");
-        detachServer();
+        detachServer(SERVICE_SHUTDOWN);
+        arbitrationWorkers.ifPresent(ExecutorService::shutdown);
         initialized = false;
     }
 
+    void playerJoined(ServerPlayerEntity player) {
+        playerIndex.joined(player);
+    }
+
+    void playerDisconnected(ServerPlayerEntity player) {
+        playerIndex.disconnected(player);
+    }
+
     boolean initialized() {
         return initialized;
     }
@@ -122,22 +220,37 @@ final class CofferMinecraftFabricService implements CofferMinecraftExchangeServi
 
         String payloadId = exchangePayload.payloadId().value();
         LOGGER.info("Fabric exchange execution entered; payloadId={}", payloadId);
-        MutationPlanId mutationPlanId = new MutationPlanId(payloadId + ":fabric-mutation-plan");
+        MinecraftInventoryValidationMemo.Statistics validationBefore = validationMemo.statistics();
+        ArbitrationResult arbitration = arbitrate(exchangePayload, coreAuthorityResolver);
+        return executeArbitrated(exchangePayload, arbitration, validationBefore);
+    }
+
+    private ArbitrationResult arbitrate(ExchangePayload exchangePayload, AuthorityResolver authorityResolver) {
+        String payloadId = exchangePayload.payloadId().value();
         LOGGER.info("Fabric arbitration starting; payloadId={}", payloadId);
         ArbitrationResult arbitration = CofferCore.arbitrate(
                 exchangePayload,
-                coreAuthorityResolver,
+                authorityResolver,
                 new OutcomeId(payloadId + ":fabric-outcome"),
-                mutationPlanId,
+                new MutationPlanId(payloadId + ":fabric-mutation-plan"),
                 denialReasonIds(payloadId));
         LOGGER.info(
-                "Fabric arbitration completed; payloadId={}, decision={}, hasMutationPlan={}",
+                "Fabric arbitration completed; payloadId={}, decision={}, hasMutationPlan={}, arbitrationThread={}",
                 payloadId,
                 arbitration.outcome().decision(),
-                arbitration.mutationPlan() != null);
+                arbitration.mutationPlan() != null,
+                Thread.currentThread().getName());
+        return arbitration;
+    }
 
+    private FabricCofferExecutionResult executeArbitrated(
+            ExchangePayload exchangePayload,
+            ArbitrationResult arbitration,
+            MinecraftInventoryValidationMemo.Statistics validationBefore) {
+        String payloadId = exchangePayload.payloadId().value();
         if (arbitration.outcome().decision() == Decision.DENIED) {
             LOGGER.info("Fabric arbitration denied exchange; payloadId={}", payloadId);
+            logValidationWork(payloadId, validationBefore);
             return new FabricCofferExecutionResult.Denied(arbitration.outcome());
         }
 
@@ -164,89 +277,146 @@ final class CofferMinecraftFabricService implements CofferMinecraftExchangeServi
                 "Fabric runtime execution completed; payloadId={}, status={}",
                 payloadId,
                 executed.result().status());
+        logValidationWork(payloadId, validationBefore);
         return executed;
     }
 
+    private void logValidationWork(String payloadId, MinecraftInventoryValidationMemo.Statistics before) {
+        MinecraftInventoryValidationMemo.Statistics work = validationMemo.statistics().minus(before);
+        LOGGER.info(
+                "Fabric inventory validation work; payloadId={}, slotScans={}, reusedResults={}, computedResults={}",
+                payloadId,
+                work.slotScans(),
+                work.reusedResults(),
+                work.computedResults());
+    }
+
     CompletableFuture<FabricCofferExecutionResult> enqueueExchange(ExchangePayload exchangePayload) {
         Objects.requireNonNull(exchangePayload, "exchangePayload");
         String payloadId = exchangePayload.payloadId().value();
-        LOGGER.info("Fabric exchange enqueue entered; payloadId={}", payloadId);
-
-        MinecraftServer currentServer = server;
         LOGGER.info(
-                "Fabric exchange enqueue server snapshot resolved; payloadId={}, hasServer={}, callerThread={}",
+                "Fabric exchange enqueue entered; payloadId={}, hasServer={}, callerThread={}",
                 payloadId,
-                currentServer != null,
+                server != null,
                 Thread.currentThread().getName());
-        if (currentServer == null) {
-            LOGGER.warn("Fabric exchange enqueue unavailable; payloadId={}, reasonCode=SERVER_UNAVAILABLE", payloadId);
-            return CompletableFuture.completedFuture(platformUnavailable("SERVER_UNAVAILABLE"));
-        }
-
-        CompletableFuture<FabricCofferExecutionResult> result = new CompletableFuture<>();
-        PendingExchange pendingExchange = new PendingExchange(exchangePayload, result);
-        pendingExchanges.add(pendingExchange);
-        if (server != currentServer && pendingExchanges.remove(pendingExchange)) {
-            LOGGER.warn("Fabric exchange enqueue unavailable after server detach; payloadId={}, reasonCode=SERVER_DETACHED", payloadId);
-            result.complete(platformUnavailable("SERVER_DETACHED"));
-            return result;
+        CompletableFuture<FabricCofferExecutionResult> result = dispatcher.submit(exchangePayload);
+        if (!result.isDone()) {
+            LOGGER.info("Fabric exchange enqueued for server tick; payloadId={}", payloadId);
         }
-        LOGGER.info(
-                "Fabric exchange enqueued for server tick; payloadId={}, serverHash={}",
-                payloadId,
-                System.identityHashCode(currentServer));
         return result;
     }
 
     void drainPendingExchanges(MinecraftServer tickServer) {
         Objects.requireNonNull(tickServer, "tickServer");
 
-        PendingExchange pendingExchange;
-        while ((pendingExchange = pendingExchanges.poll()) != null) {
-            completeExchange(pendingExchange.request(), tickServer, pendingExchange.future());
+        int drained;
+        inventoryVersions.clear();
+        try (MinecraftStackNbtHashMemo ignored = MinecraftStackNbtHashMemo.open()) {
+            drained = dispatcher.drain(new TickExchanges(tickServer));
+        } finally {
+            inventoryVersions.clear();
+            contention.drained();
+        }
+
+        CofferMinecraftFabricExchangeQueue.Statistics statistics = dispatcher.queueStatistics();
+        if (statistics.queueDepth() > 0) {
+            CofferMinecraftFabricExchangeDispatcher.Statistics dispatchStatistics = dispatcher.statistics();
+            LOGGER.info(
+                    "Fabric exchange drain carried work over; drained={}, queueDepth={}, parkedSubmitters={}, carriedOver={}, budgetOverruns={}, activeSubmitters={}, fairness={}, snapshotArbitrations={}, staleSnapshotArbitrations={}",
+                    drained,
+                    statistics.queueDepth(),
+                    statistics.parkedSubmitters(),
+                    statistics.carriedOver(),
+                    statistics.budgetOverruns(),
+                    statistics.activeSubmitters(),
+                    statistics.lastDrainFairness(),
+                    dispatchStatistics.offloaded(),
+                    staleSnapshotArbitrations.sum());
+        }
+    }
+
+    private Optional<Map<UUID, CofferMinecraftFabricInventorySnapshot>> captureSnapshots(ExchangePayload exchangePayload) {
+        if (exchangePayload.actors() == null) {
+            return Optional.empty();
+        }
+        Map<UUID, EnumSet<MinecraftPlayerInventoryContainer.Region>> touchedRegions = new LinkedHashMap<>();
+        for (ActorDeclaration actor : exchangePayload.actors()) {
+            Optional<UUID> playerId = MinecraftContainerResolver.playerId(actor);
+            Optional<List<MinecraftPlayerInventoryContainer.Region>> regions = MinecraftContainerResolver.regions(actor);
+            if (playerId.isEmpty() || regions.isEmpty()) {
+                continue;
+            }
+            touchedRegions.computeIfAbsent(
+                    playerId.get(),
+                    ignored -> EnumSet.noneOf(MinecraftPlayerInventoryContainer.Region.class)).addAll(regions.get());
+        }
+
+        if (touchedRegions.isEmpty() || !contention.claim(touchedRegions.keySet())) {
+            return Optional.empty();
+        }
+
+        Map<UUID, CofferMinecraftFabricInventorySnapshot> snapshots = new HashMap<>();
+        for (Map.Entry<UUID, EnumSet<MinecraftPlayerInventoryContainer.Region>> touched : touchedRegions.entrySet()) {
+            Optional<PlayerInventory> inventory = resolvePlayerInventory(touched.getKey());
+            if (inventory.isEmpty()) {
+                return Optional.empty();
+            }
+            Optional<CofferMinecraftFabricInventorySnapshot> snapshot = CofferMinecraftFabricInventorySnapshot.capture(
+                    inventoryVersions.version(touched.getKey(), inventory.get()),
+                    touched.getValue(),
+                    region -> slotsForRegion(inventory.get(), region),
+                    maxSnapshotStacks);
+            if (snapshot.isEmpty()) {
+                return Optional.empty();
+            }
+            snapshots.put(touched.getKey(), snapshot.get());
         }
+        return Optional.of(Map.copyOf(snapshots));
     }
 
-    private void completeExchange(
+    private SnapshotArbitration arbitrateSnapshot(
             ExchangePayload exchangePayload,
-            MinecraftServer tickServer,
-            CompletableFuture<FabricCofferExecutionResult> result) {
-        String payloadId = exchangePayload.payloadId().value();
-        LOGGER.info(
-                "Fabric queued exchange task entered; payloadId={}, taskThread={}, serverStillAttached={}",
-                payloadId,
-                Thread.currentThread().getName(),
-                server == tickServer);
-        if (server != tickServer) {
-            LOGGER.warn("Fabric queued exchange unavailable during task; payloadId={}, reasonCode=SERVER_UNAVAILABLE", payloadId);
-            result.complete(platformUnavailable("SERVER_UNAVAILABLE"));
-            return;
+            Map<UUID, CofferMinecraftFabricInventorySnapshot> snapshots) {
+        arbitrationSnapshots.set(snapshots);
+        try (MinecraftStackNbtHashMemo ignored = MinecraftStackNbtHashMemo.open()) {
+            return new SnapshotArbitration(snapshots, arbitrate(exchangePayload, snapshotAuthorityResolver));
+        } finally {
+            arbitrationSnapshots.remove();
         }
+    }
 
+    private boolean snapshotsCurrent(Map<UUID, CofferMinecraftFabricInventorySnapshot> snapshots) {
+        for (Map.Entry<UUID, CofferMinecraftFabricInventorySnapshot> snapshot : snapshots.entrySet()) {
+            if (resolvePlayerInventory(snapshot.getKey()).isEmpty()
+                    || !inventoryVersions.isCurrent(snapshot.getKey(), snapshot.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private <T> T inExchangeScope(Supplier<T> task) {
         boolean previousDraining = drainingExchangeQueue.get();
+        ResolutionScope previousScope = resolutionScope.get();
         drainingExchangeQueue.set(Boolean.TRUE);
+        resolutionScope.set(new ResolutionScope());
         try {
-            FabricCofferExecutionResult executionResult = executeExchange(exchangePayload);
-            LOGGER.info(
-                    "Fabric queued exchange completing future; payloadId={}, resultType={}",
-                    payloadId,
-                    executionResult.getClass().getSimpleName());
-            result.complete(executionResult);
-        } catch (Throwable throwable) {
-            LOGGER.error("Fabric queued exchange completing future exceptionally; payloadId={}", payloadId, throwable);
-            result.completeExceptionally(throwable);
+            return task.get();
         } finally {
             drainingExchangeQueue.set(previousDraining);
+            if (previousScope == null) {
+                resolutionScope.remove();
+            } else {
+                resolutionScope.set(previousScope);
+            }
         }
     }
 
-    private void completePendingUnavailable(String reasonCode) {
-        PendingExchange pendingExchange;
-        while ((pendingExchange = pendingExchanges.poll()) != null) {
-            String payloadId = pendingExchange.request().payloadId().value();
-            LOGGER.warn("Fabric queued exchange unavailable during detach; payloadId={}, reasonCode={}", payloadId, reasonCode);
-            pendingExchange.future().complete(platformUnavailable(reasonCode));
+    private static String submitter(ExchangePayload exchangePayload) {
+        if (exchangePayload.actors() == null || exchangePayload.actors().isEmpty()) {
+            return UNDECLARED_SUBMITTER;
         }
+        return exchangePayload.actors().get(0).actorRef().value();
     }
 
     private static FabricCofferExecutionResult.Unavailable platformUnavailable(String reasonCode) {
@@ -259,19 +429,51 @@ final class CofferMinecraftFabricService implements CofferMinecraftExchangeServi
         }
     }
 
-    private Optional<List<ItemStack>> resolvePlayerInventorySlots(
-            UUID playerId,
-            MinecraftPlayerInventoryContainer.Region region) {
+    private Optional<PlayerInventory> resolvePlayerInventory(UUID playerId) {
         MinecraftServer currentServer = server;
         if (currentServer == null || !drainingExchangeQueue.get()) {
             return Optional.empty();
         }
 
-        return PlayerLookup.all(currentServer).stream()
-                .filter(player -> player.getUuid().equals(playerId))
-                .findFirst()
-                .map(ServerPlayerEntity::getInventory)
-                .map(inventory -> slotsForRegion(inventory, region));
+        ResolutionScope scope = resolutionScope.get();
+        if (scope == null) {
+            return lookupPlayerInventory(currentServer, playerId);
+        }
+        return scope.inventories.computeIfAbsent(playerId, ignored -> lookupPlayerInventory(currentServer, playerId));
+    }
+
+    private Optional<List<ItemStack>> resolvePlayerInventorySlots(
+            UUID playerId,
+            MinecraftPlayerInventoryContainer.Region region) {
+        ResolutionScope scope = resolutionScope.get();
+        if (scope == null || server == null || !drainingExchangeQueue.get()) {
+            return resolvePlayerInventory(playerId).map(inventory -> slotsForRegion(inventory, region));
+        }
+        return scope.slots.computeIfAbsent(
+                new SlotsKey(playerId, List.of(region)),
+                ignored -> resolvePlayerInventory(playerId).map(inventory -> slotsForRegion(inventory, region)));
+    }
+
+    private Optional<List<ItemStack>> resolvePlayerInventorySlots(
+            UUID playerId,
+            List<MinecraftPlayerInventoryContainer.Region> regions,
+            Supplier<Optional<List<ItemStack>>> union) {
+        ResolutionScope scope = resolutionScope.get();
+        if (scope == null || server == null || !drainingExchangeQueue.get()) {
+            return union.get();
+        }
+        SlotsKey key = new SlotsKey(playerId, regions);
+        Optional<List<ItemStack>> cached = scope.slots.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<List<ItemStack>> resolved = union.get();
+        scope.slots.put(key, resolved);
+        return resolved;
+    }
+
+    private Optional<PlayerInventory> lookupPlayerInventory(MinecraftServer currentServer, UUID playerId) {
+        return playerIndex.find(currentServer, playerId).map(ServerPlayerEntity::getInventory);
     }
 
     private static List<ItemStack> slotsForRegion(
@@ -301,8 +503,136 @@ final class CofferMinecraftFabricService implements CofferMinecraftExchangeServi
         return List.copyOf(stepIds);
     }
 
-    private record PendingExchange(
-            ExchangePayload request,
-            CompletableFuture<FabricCofferExecutionResult> future) {
+    private final class ServerPlayerInventorySlots implements MinecraftContainerResolver.PlayerInventorySlots {
+        @Override
+        public Optional<List<ItemStack>> resolve(UUID playerId, MinecraftPlayerInventoryContainer.Region region) {
+            return resolvePlayerInventorySlots(playerId, region);
+        }
+
+        @Override
+        public Optional<List<ItemStack>> resolve(
+                UUID playerId,
+                List<MinecraftPlayerInventoryContainer.Region> regions) {
+            return resolvePlayerInventorySlots(
+                    playerId,
+                    regions,
+                    () -> MinecraftContainerResolver.PlayerInventorySlots.super.resolve(playerId, regions));
+        }
+
+        @Override
+        public OptionalLong version(UUID playerId) {
+            return resolvePlayerInventory(playerId)
+                    .map(inventory -> OptionalLong.of(inventoryVersions.version(playerId, inventory)))
+                    .orElseGet(OptionalLong::empty);
+        }
+
+        @Override
+        public void mutated(UUID playerId) {
+            resolvePlayerInventory(playerId).ifPresent(PlayerInventory::markDirty);
+            inventoryVersions.mutated(playerId);
+        }
+    }
+
+    private static final class ResolutionScope {
+        private final Map<UUID, Optional<PlayerInventory>> inventories = new HashMap<>();
+        private final Map<SlotsKey, Optional<List<ItemStack>>> slots = new HashMap<>();
+    }
+
+    private record SlotsKey(UUID playerId, List<MinecraftPlayerInventoryContainer.Region> regions) {
+    }
+
+    private final class SnapshotInventorySlots implements MinecraftContainerResolver.PlayerInventorySlots {
+        @Override
+        public Optional<List<ItemStack>> resolve(UUID playerId, MinecraftPlayerInventoryContainer.Region region) {
+            return snapshot(playerId).flatMap(snapshot -> snapshot.slots(region));
+        }
+
+        @Override
+        public OptionalLong version(UUID playerId) {
+            return snapshot(playerId)
+                    .map(snapshot -> OptionalLong.of(snapshot.version()))
+                    .orElseGet(OptionalLong::empty);
+        }
+
+        private Optional<CofferMinecraftFabricInventorySnapshot> snapshot(UUID playerId) {
+            Map<UUID, CofferMinecraftFabricInventorySnapshot> snapshots = arbitrationSnapshots.get();
+            return snapshots == null ? Optional.empty() : Optional.ofNullable(snapshots.get(playerId));
+        }
+    }
+
+    private final class TickExchanges
+            implements CofferMinecraftFabricExchangeDispatcher.Handler<ExchangePayload, SnapshotArbitration> {
+        private final MinecraftServer tickServer;
+
+        private TickExchanges(MinecraftServer tickServer) {
+            this.tickServer = tickServer;
+        }
+
+        @Override
+        public Optional<Supplier<SnapshotArbitration>> prepare(ExchangePayload exchangePayload) {
+            if (server != tickServer) {
+                return Optional.empty();
+            }
+            return inExchangeScope(() -> captureSnapshots(exchangePayload))
+                    .map(snapshots -> () -> arbitrateSnapshot(exchangePayload, snapshots));
+        }
+
+        @Override
+        public FabricCofferExecutionResult apply(ExchangePayload exchangePayload, SnapshotArbitration arbitrated) {
+            String payloadId = exchangePayload.payloadId().value();
+            if (server != tickServer) {
+                LOGGER.warn("Fabric arbitrated exchange unavailable during task; payloadId={}, reasonCode=SERVER_UNAVAILABLE", payloadId);
+                return platformUnavailable(CofferMinecraftFabricExchangeDispatcher.SERVER_UNAVAILABLE);
+            }
+            return inExchangeScope(() -> {
+                if (!snapshotsCurrent(arbitrated.snapshots())) {
+                    staleSnapshotArbitrations.increment();
+                    LOGGER.info("Fabric snapshot arbitration stale; payloadId={}, arbitrating on server thread", payloadId);
+                    return executeExchange(exchangePayload);
+                }
+                return executeArbitrated(exchangePayload, arbitrated.arbitration(), validationMemo.statistics());
+            });
+        }
+
+        @Override
+        public FabricCofferExecutionResult execute(ExchangePayload exchangePayload) {
+            String payloadId = exchangePayload.payloadId().value();
+            LOGGER.info(
+                    "Fabric queued exchange task entered; payloadId={}, taskThread={}, serverStillAttached={}",
+                    payloadId,
+                    Thread.currentThread().getName(),
+                    server == tickServer);
+            if (server != tickServer) {
+                LOGGER.warn("Fabric queued exchange unavailable during task; payloadId={}, reasonCode=SERVER_UNAVAILABLE", payloadId);
+                return platformUnavailable(CofferMinecraftFabricExchangeDispatcher.SERVER_UNAVAILABLE);
+            }
+            return inExchangeScope(() -> executeExchange(exchangePayload));
+        }
+    }
+
+    private record SnapshotArbitration(
+            Map<UUID, CofferMinecraftFabricInventorySnapshot> snapshots,
+            ArbitrationResult arbitration) {
+    }
+
+    record ArbitrationPolicy(boolean snapshotArbitration, int workers, int maxSnapshotStacks) {
+        ArbitrationPolicy {
+            if (workers <= 0) {
+                throw new IllegalArgumentException("workers must be positive");
+            }
+            if (maxSnapshotStacks <= 0) {
+                throw new IllegalArgumentException("maxSnapshotStacks must be positive");
+            }
+        }
+
+        static ArbitrationPolicy fromSystemProperties() {
+            int defaultWorkers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+            int workers = Integer.getInteger(ARBITRATION_WORKERS_PROPERTY, defaultWorkers);
+            int maxSnapshotStacks = Integer.getInteger(MAX_SNAPSHOT_STACKS_PROPERTY, DEFAULT_MAX_SNAPSHOT_STACKS);
+            return new ArbitrationPolicy(
+                    Boolean.getBoolean(SNAPSHOT_ARBITRATION_PROPERTY),
+                    workers > 0 ? workers : defaultWorkers,
+                    maxSnapshotStacks > 0 ? maxSnapshotStacks : DEFAULT_MAX_SNAPSHOT_STACKS);
+        }
     }
 }
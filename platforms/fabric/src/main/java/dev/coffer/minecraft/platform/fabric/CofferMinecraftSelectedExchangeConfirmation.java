@@ -83,11 +83,13 @@ final class CofferMinecraftSelectedExchangeConfirmation {
                 return "EMPTY";
             }
             MinecraftItemDescriptor value = descriptor.orElseThrow();
-            return value.itemId()
+            return Long.toHexString(value.contentHash())
+                    + "#"
+                    + value.itemId()
                     + "#"
                     + value.quantity()
                     + "#"
-                    + value.nbtPayload().orElse("");
+                    + value.canonicalNbtPayload().orElse("");
         }
     }
 
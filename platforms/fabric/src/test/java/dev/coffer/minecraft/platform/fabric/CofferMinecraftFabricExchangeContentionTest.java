@@ -0,0 +1,52 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class CofferMinecraftFabricExchangeContentionTest {
+    private static final UUID SHOP_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID ALICE_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID BOB_ID = UUID.fromString("00000000-0000-0000-0000-000000000003");
+    private static final UUID CAROL_ID = UUID.fromString("00000000-0000-0000-0000-000000000004");
+
+    @Test
+    void onlyTheFirstExchangeAgainstASharedCounterpartyHasItToItself() {
+        CofferMinecraftFabricExchangeContention contention = new CofferMinecraftFabricExchangeContention();
+
+        assertTrue(contention.claim(List.of(ALICE_ID, SHOP_ID)));
+        assertFalse(contention.claim(List.of(BOB_ID, SHOP_ID)));
+        assertFalse(contention.claim(List.of(CAROL_ID, SHOP_ID)));
+
+        assertEquals(new CofferMinecraftFabricExchangeContention.Statistics(1, 2, 0), contention.statistics());
+    }
+
+    @Test
+    void counterpartySharedInOneDrainStaysContendedInTheNext() {
+        CofferMinecraftFabricExchangeContention contention = new CofferMinecraftFabricExchangeContention();
+        contention.claim(List.of(ALICE_ID, SHOP_ID));
+        contention.claim(List.of(BOB_ID, SHOP_ID));
+        contention.drained();
+
+        assertFalse(contention.claim(List.of(ALICE_ID, SHOP_ID)));
+        assertTrue(contention.claim(List.of(BOB_ID, CAROL_ID)));
+        assertEquals(1, contention.statistics().contendedPlayers());
+    }
+
+    @Test
+    void contentionLapsesAfterADrainWithoutSharing() {
+        CofferMinecraftFabricExchangeContention contention = new CofferMinecraftFabricExchangeContention();
+        contention.claim(List.of(ALICE_ID, SHOP_ID));
+        contention.claim(List.of(BOB_ID, SHOP_ID));
+        contention.drained();
+        contention.claim(List.of(ALICE_ID, SHOP_ID));
+        contention.drained();
+
+        assertTrue(contention.claim(List.of(BOB_ID, SHOP_ID)));
+        assertEquals(0, contention.statistics().contendedPlayers());
+    }
+}
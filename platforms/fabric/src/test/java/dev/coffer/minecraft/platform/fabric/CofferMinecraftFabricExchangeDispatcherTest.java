@@ -0,0 +1,360 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class CofferMinecraftFabricExchangeDispatcherTest {
+    private static final CofferMinecraftFabricExchangeQueue.AdmissionLimits LIMITS =
+            new CofferMinecraftFabricExchangeQueue.AdmissionLimits(64, 64);
+    private static final CofferMinecraftFabricExchangeQueue.DrainBudget BUDGET =
+            new CofferMinecraftFabricExchangeQueue.DrainBudget(64, 1_000);
+
+    @Test
+    void preparedExchangeIsAppliedAndCompletedOnTheDrainingThread() {
+        Workers workers = new Workers();
+        CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher = dispatcher(BUDGET, workers);
+        RecordingHandler handler = new RecordingHandler(Set.of("alice-1"));
+        dispatcher.attach();
+        CompletableFuture<FabricCofferExecutionResult> result = dispatcher.submit("alice-1");
+        List<Thread> completedOn = completionThreads(result);
+
+        assertEquals(1, dispatcher.drain(handler));
+        assertFalse(result.isDone());
+        assertEquals(1, dispatcher.statistics().offloaded());
+
+        workers.runOnAnotherThread();
+        assertFalse(result.isDone());
+
+        assertEquals(1, dispatcher.drain(handler));
+        assertEquals(marker("apply:alice-1:prepared"), result.join());
+        assertEquals(List.of(Thread.currentThread()), completedOn);
+        assertEquals(List.of("apply:alice-1:prepared"), handler.calls);
+    }
+
+    @Test
+    void preparationReturningWithinTheBudgetIsAppliedInTheSameDrain() throws InterruptedException {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher = new CofferMinecraftFabricExchangeDispatcher<>(
+                new CofferMinecraftFabricExchangeQueue.DrainBudget(64, TimeUnit.SECONDS.toNanos(10)),
+                LIMITS,
+                System::nanoTime,
+                Optional.<Executor>of(pool),
+                CofferMinecraftFabricExchangeDispatcherTest::submitter,
+                exchange -> exchange);
+        RecordingHandler handler = new RecordingHandler(Set.of("alice-1"));
+        dispatcher.attach();
+        CompletableFuture<FabricCofferExecutionResult> prepared = dispatcher.submit("alice-1");
+        CompletableFuture<FabricCofferExecutionResult> inline = dispatcher.submit("bob-1");
+
+        assertEquals(3, dispatcher.drain(handler));
+
+        assertEquals(marker("apply:alice-1:prepared"), prepared.join());
+        assertEquals(marker("execute:bob-1"), inline.join());
+        assertEquals(List.of("execute:bob-1", "apply:alice-1:prepared"), handler.calls);
+        assertEquals(0, dispatcher.queueStatistics().queueDepth());
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void preparedExchangesAreAppliedWithinTheDrainBudget() {
+        Workers workers = new Workers();
+        CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher =
+                dispatcher(new CofferMinecraftFabricExchangeQueue.DrainBudget(2, 1_000), workers);
+        RecordingHandler handler = new RecordingHandler(Set.of("alice-1", "bob-1", "carol-1"));
+        dispatcher.attach();
+        dispatcher.submit("alice-1");
+        dispatcher.submit("bob-1");
+        dispatcher.submit("carol-1");
+
+        assertEquals(2, dispatcher.drain(handler));
+        workers.runOnAnotherThread();
+        assertEquals(2, dispatcher.drain(handler));
+
+        assertEquals(List.of("apply:alice-1:prepared"), handler.calls);
+        CofferMinecraftFabricExchangeQueue.Statistics statistics = dispatcher.queueStatistics();
+        assertEquals(2, statistics.queueDepth());
+        assertEquals(1, statistics.parkedSubmitters());
+        assertEquals(1, statistics.drained());
+    }
+
+    @Test
+    void submitterOrderHoldsAcrossPreparedAndInlineExchanges() {
+        Workers workers = new Workers();
+        CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher = dispatcher(BUDGET, workers);
+        RecordingHandler handler = new RecordingHandler(Set.of("alice-1"));
+        dispatcher.attach();
+        CompletableFuture<FabricCofferExecutionResult> first = dispatcher.submit("alice-1");
+        CompletableFuture<FabricCofferExecutionResult> second = dispatcher.submit("alice-2");
+        CompletableFuture<FabricCofferExecutionResult> other = dispatcher.submit("bob-1");
+
+        dispatcher.drain(handler);
+        assertEquals(List.of("execute:bob-1"), handler.calls);
+        assertFalse(second.isDone());
+
+        workers.runOnAnotherThread();
+        dispatcher.drain(handler);
+
+        assertEquals(List.of("execute:bob-1", "apply:alice-1:prepared", "execute:alice-2"), handler.calls);
+        assertTrue(first.isDone() && second.isDone() && other.isDone());
+    }
+
+    @Test
+    void staleOrFailedPreparationFallsBackOnTheDrainingThread() {
+        Workers workers = new Workers();
+        CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher = dispatcher(BUDGET, workers);
+        RecordingHandler handler = new RecordingHandler(Set.of("alice-1", "bob-1"));
+        handler.stale.add("alice-1:prepared");
+        handler.failing.add("bob-1");
+        dispatcher.attach();
+        CompletableFuture<FabricCofferExecutionResult> stale = dispatcher.submit("alice-1");
+        CompletableFuture<FabricCofferExecutionResult> failed = dispatcher.submit("bob-1");
+        List<Thread> completedOn = completionThreads(failed);
+
+        dispatcher.drain(handler);
+        workers.runOnAnotherThread();
+        assertFalse(failed.isDone());
+        dispatcher.drain(handler);
+
+        assertEquals(marker("execute:alice-1"), stale.join());
+        ExecutionException failure = assertThrows(ExecutionException.class, failed::get);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(List.of(Thread.currentThread()), completedOn);
+    }
+
+    @Test
+    void rejectedOffloadExecutesInline() {
+        CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher = dispatcher(BUDGET, task -> {
+            throw new RejectedExecutionException("saturated");
+        });
+        RecordingHandler handler = new RecordingHandler(Set.of("alice-1"));
+        dispatcher.attach();
+        CompletableFuture<FabricCofferExecutionResult> result = dispatcher.submit("alice-1");
+
+        dispatcher.drain(handler);
+
+        assertEquals(marker("execute:alice-1"), result.join());
+        assertEquals(new CofferMinecraftFabricExchangeDispatcher.Statistics(0, 1), dispatcher.statistics());
+    }
+
+    @Test
+    void detachCompletesQueuedExchangesAndParkedOnesWhenTheirWorkerReturns() {
+        Workers workers = new Workers();
+        CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher = dispatcher(BUDGET, workers);
+        RecordingHandler handler = new RecordingHandler(Set.of("alice-1"));
+        dispatcher.attach();
+        CompletableFuture<FabricCofferExecutionResult> parked = dispatcher.submit("alice-1");
+        CompletableFuture<FabricCofferExecutionResult> waiting = dispatcher.submit("alice-2");
+        dispatcher.drain(handler);
+        CompletableFuture<FabricCofferExecutionResult> queued = dispatcher.submit("bob-1");
+
+        dispatcher.detach(CofferMinecraftFabricExchangeDispatcher.SERVER_DETACHED);
+        assertEquals(unavailable(CofferMinecraftFabricExchangeDispatcher.SERVER_DETACHED), waiting.join());
+        assertEquals(unavailable(CofferMinecraftFabricExchangeDispatcher.SERVER_DETACHED), queued.join());
+        assertFalse(parked.isDone());
+        assertEquals(
+                unavailable(CofferMinecraftFabricExchangeDispatcher.SERVER_UNAVAILABLE),
+                dispatcher.submit("carol-1").join());
+
+        dispatcher.attach();
+        workers.runOnAnotherThread();
+
+        assertEquals(unavailable(CofferMinecraftFabricExchangeDispatcher.SERVER_DETACHED), parked.join());
+        assertEquals(0, dispatcher.drain(handler));
+        assertEquals(0, dispatcher.queueStatistics().queueDepth());
+        assertEquals(List.of(), handler.calls);
+    }
+
+    @Test
+    void detachBetweenAttachmentCheckAndAdmissionDoesNotStrandTheExchange() {
+        List<CofferMinecraftFabricExchangeDispatcher<String, String>> self = new ArrayList<>();
+        CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher = new CofferMinecraftFabricExchangeDispatcher<>(
+                BUDGET,
+                LIMITS,
+                () -> 0L,
+                Optional.empty(),
+                exchange -> {
+                    self.get(0).detach(CofferMinecraftFabricExchangeDispatcher.SERVER_DETACHED);
+                    return submitter(exchange);
+                },
+                exchange -> exchange);
+        self.add(dispatcher);
+        dispatcher.attach();
+
+        CompletableFuture<FabricCofferExecutionResult> result = dispatcher.submit("alice-1");
+
+        assertEquals(unavailable(CofferMinecraftFabricExchangeDispatcher.SERVER_DETACHED), result.join());
+        assertEquals(0, dispatcher.queueStatistics().queueDepth());
+    }
+
+    @Test
+    void everyFutureCompletesWhenDetachRacesSubmittersAndWorkers() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher = new CofferMinecraftFabricExchangeDispatcher<>(
+                BUDGET,
+                new CofferMinecraftFabricExchangeQueue.AdmissionLimits(4096, 4096),
+                System::nanoTime,
+                Optional.<Executor>of(pool),
+                CofferMinecraftFabricExchangeDispatcherTest::submitter,
+                exchange -> exchange);
+        RecordingHandler handler = new RecordingHandler(null);
+        dispatcher.attach();
+        List<CompletableFuture<FabricCofferExecutionResult>> results = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> submitters = new ArrayList<>();
+        for (int submitter = 0; submitter < 4; submitter++) {
+            int id = submitter;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int sequence = 0; sequence < 500; sequence++) {
+                    results.add(dispatcher.submit("submitter" + id + "-" + sequence));
+                }
+            });
+            thread.start();
+            submitters.add(thread);
+        }
+
+        start.countDown();
+        for (int tick = 0; tick < 20; tick++) {
+            dispatcher.drain(handler);
+        }
+        dispatcher.detach(CofferMinecraftFabricExchangeDispatcher.SERVER_DETACHED);
+        for (Thread thread : submitters) {
+            thread.join();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        dispatcher.detach(CofferMinecraftFabricExchangeDispatcher.SERVER_DETACHED);
+
+        assertEquals(2_000, results.size());
+        for (CompletableFuture<FabricCofferExecutionResult> result : results) {
+            assertTrue(result.isDone());
+        }
+        assertEquals(0, dispatcher.queueStatistics().queueDepth());
+    }
+
+    private static CofferMinecraftFabricExchangeDispatcher<String, String> dispatcher(
+            CofferMinecraftFabricExchangeQueue.DrainBudget budget,
+            Executor workers) {
+        return new CofferMinecraftFabricExchangeDispatcher<>(
+                budget,
+                LIMITS,
+                () -> 0L,
+                Optional.of(workers),
+                CofferMinecraftFabricExchangeDispatcherTest::submitter,
+                exchange -> exchange);
+    }
+
+    private static String submitter(String exchange) {
+        return exchange.substring(0, exchange.indexOf('-'));
+    }
+
+    private static List<Thread> completionThreads(CompletableFuture<FabricCofferExecutionResult> result) {
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        result.whenComplete((ignored, failure) -> threads.add(Thread.currentThread()));
+        return threads;
+    }
+
+    private static FabricCofferExecutionResult marker(String call) {
+        return new FabricCofferExecutionResult.Unavailable(call);
+    }
+
+    private static FabricCofferExecutionResult unavailable(String reasonCode) {
+        return new FabricCofferExecutionResult.Unavailable(reasonCode);
+    }
+
+    private static final class Workers implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        void runOnAnotherThread() {
+            Thread worker = new Thread(() -> {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    task.run();
+                }
+            });
+            worker.start();
+            try {
+                worker.join();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Offloads the named exchanges, or every exchange when none are named. */
+    private static final class RecordingHandler implements CofferMinecraftFabricExchangeDispatcher.Handler<String, String> {
+        private final Set<String> offloaded;
+        private final List<String> stale = new ArrayList<>();
+        private final List<String> failing = new ArrayList<>();
+        private final List<String> calls = new CopyOnWriteArrayList<>();
+        private final Thread drainingThread = Thread.currentThread();
+
+        private RecordingHandler(Set<String> offloaded) {
+            this.offloaded = offloaded;
+        }
+
+        @Override
+        public Optional<Supplier<String>> prepare(String exchange) {
+            assertSame(drainingThread, Thread.currentThread());
+            if (offloaded != null && !offloaded.contains(exchange)) {
+                return Optional.empty();
+            }
+            return Optional.of(() -> {
+                if (failing.contains(exchange)) {
+                    throw new IllegalStateException(exchange);
+                }
+                return exchange + ":prepared";
+            });
+        }
+
+        @Override
+        public FabricCofferExecutionResult apply(String exchange, String prepared) {
+            assertSame(drainingThread, Thread.currentThread());
+            if (stale.contains(prepared)) {
+                return execute(exchange);
+            }
+            calls.add("apply:" + prepared);
+            return marker("apply:" + prepared);
+        }
+
+        @Override
+        public FabricCofferExecutionResult execute(String exchange) {
+            assertSame(drainingThread, Thread.currentThread());
+            calls.add("execute:" + exchange);
+            return marker("execute:" + exchange);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class CofferMinecraftFabricExchangeQueueTest {
+    private static final CofferMinecraftFabricExchangeQueue.AdmissionLimits LIMITS =
+            new CofferMinecraftFabricExchangeQueue.AdmissionLimits(64, 64);
+    private static final CofferMinecraftFabricExchangeQueue.DrainBudget BUDGET =
+            new CofferMinecraftFabricExchangeQueue.DrainBudget(64, 100);
+
+    @Test
+    void drainStopsAtTheExchangeCountAndCarriesTheRestOver() {
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                new CofferMinecraftFabricExchangeQueue.DrainBudget(2, 1_000),
+                LIMITS,
+                () -> 0L);
+        List<String> completed = new ArrayList<>();
+        queue.offer("first", "submitter");
+        queue.offer("second", "submitter");
+        queue.offer("third", "submitter");
+
+        assertEquals(2, queue.drain(completed::add));
+        assertEquals(List.of("first", "second"), completed);
+        assertEquals(new CofferMinecraftFabricExchangeQueue.Statistics(1, 1, 2, 1, 0, 0, 0, 1.0, 0), queue.statistics());
+
+        assertEquals(1, queue.drain(completed::add));
+        assertEquals(List.of("first", "second", "third"), completed);
+        assertEquals(new CofferMinecraftFabricExchangeQueue.Statistics(0, 0, 3, 1, 0, 0, 0, 1.0, 0), queue.statistics());
+    }
+
+    @Test
+    void drainStopsOnceTheTickBudgetIsSpentAndCountsTheOverrun() {
+        AtomicLong clock = new AtomicLong();
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                new CofferMinecraftFabricExchangeQueue.DrainBudget(64, 100),
+                LIMITS,
+                clock::get);
+        List<String> completed = new ArrayList<>();
+        queue.offer("slow", "submitter");
+        queue.offer("next", "submitter");
+
+        assertEquals(1, queue.drain(exchange -> {
+            completed.add(exchange);
+            clock.addAndGet(150);
+        }));
+
+        assertEquals(List.of("slow"), completed);
+        assertEquals(new CofferMinecraftFabricExchangeQueue.Statistics(1, 1, 1, 1, 1, 0, 0, 1.0, 0), queue.statistics());
+    }
+
+    @Test
+    void removedAndPolledExchangesLeaveTheDepth() {
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                BUDGET,
+                LIMITS,
+                () -> 0L);
+        queue.offer("first", "submitter");
+        queue.offer("second", "submitter");
+
+        assertTrue(queue.remove("first"));
+        assertFalse(queue.remove("first"));
+        assertEquals("second", queue.poll());
+        assertNull(queue.poll());
+        assertEquals(0, queue.statistics().queueDepth());
+    }
+
+    @Test
+    void fullQueueRejectsImmediatelyAndCountsTheRejection() {
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                BUDGET,
+                new CofferMinecraftFabricExchangeQueue.AdmissionLimits(2, 2),
+                () -> 0L);
+
+        assertEquals(CofferMinecraftFabricExchangeQueue.Admission.ACCEPTED, queue.offer("first", "alice"));
+        assertEquals(CofferMinecraftFabricExchangeQueue.Admission.ACCEPTED, queue.offer("second", "bob"));
+        assertEquals(CofferMinecraftFabricExchangeQueue.Admission.QUEUE_FULL, queue.offer("third", "carol"));
+
+        assertEquals(2, queue.statistics().queueDepth());
+        assertEquals(1, queue.statistics().rejectedQueueFull());
+    }
+
+    @Test
+    void submitterQuotaIsReleasedAsItsExchangesLeaveTheQueue() {
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                BUDGET,
+                new CofferMinecraftFabricExchangeQueue.AdmissionLimits(8, 1),
+                () -> 0L);
+
+        assertEquals(CofferMinecraftFabricExchangeQueue.Admission.ACCEPTED, queue.offer("first", "alice"));
+        assertEquals(
+                CofferMinecraftFabricExchangeQueue.Admission.SUBMITTER_QUOTA_EXCEEDED,
+                queue.offer("second", "alice"));
+        assertEquals(CofferMinecraftFabricExchangeQueue.Admission.ACCEPTED, queue.offer("other", "bob"));
+        assertEquals("first", queue.poll());
+        assertEquals(CofferMinecraftFabricExchangeQueue.Admission.ACCEPTED, queue.offer("second", "alice"));
+
+        assertEquals(1, queue.statistics().rejectedSubmitterQuota());
+        assertEquals(2, queue.statistics().queueDepth());
+    }
+
+    @Test
+    void drainRotatesAcrossSubmittersSoHeavySubmittersCannotStarveOthers() {
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                BUDGET,
+                LIMITS,
+                () -> 0L);
+        List<String> completed = new ArrayList<>();
+        queue.offer("alice-1", "alice");
+        queue.offer("alice-2", "alice");
+        queue.offer("alice-3", "alice");
+        queue.offer("bob-1", "bob");
+        queue.offer("carol-1", "carol");
+
+        assertEquals(5, queue.drain(completed::add));
+
+        assertEquals(List.of("alice-1", "bob-1", "carol-1", "alice-2", "alice-3"), completed);
+    }
+
+    @Test
+    void fairnessIndexCoversSubmittersStillWaitingAfterTheDrain() {
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                new CofferMinecraftFabricExchangeQueue.DrainBudget(3, 1_000),
+                LIMITS,
+                () -> 0L);
+        List<String> completed = new ArrayList<>();
+        queue.offer("alice-1", "alice");
+        queue.offer("alice-2", "alice");
+        queue.offer("alice-3", "alice");
+        queue.offer("bob-1", "bob");
+        queue.offer("bob-2", "bob");
+
+        assertEquals(3, queue.drain(completed::add));
+
+        assertEquals(List.of("alice-1", "bob-1", "alice-2"), completed);
+        assertEquals(2, queue.statistics().activeSubmitters());
+        assertEquals(0.9, queue.statistics().lastDrainFairness(), 1e-9);
+    }
+
+    @Test
+    void parkedSubmitterIsSkippedUntilItsExchangeIsHandedBack() {
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                BUDGET,
+                LIMITS,
+                () -> 0L);
+        List<String> handled = new ArrayList<>();
+        queue.offer("alice-1", "alice");
+        queue.offer("alice-2", "alice");
+        queue.offer("bob-1", "bob");
+
+        assertEquals(2, queue.drainOrPark(exchange -> {
+            handled.add(exchange);
+            return !exchange.equals("alice-1");
+        }));
+        assertEquals(List.of("alice-1", "bob-1"), handled);
+        assertEquals(new CofferMinecraftFabricExchangeQueue.Statistics(2, 1, 1, 2, 0, 0, 0, 1.0, 1), queue.statistics());
+
+        queue.offer("alice-3", "alice");
+        queue.unpark("alice-1-prepared", "alice");
+        assertEquals(3, queue.drain(handled::add));
+
+        assertEquals(List.of("alice-1", "bob-1", "alice-1-prepared", "alice-2", "alice-3"), handled);
+        assertEquals(0, queue.statistics().queueDepth());
+        assertEquals(0, queue.statistics().parkedSubmitters());
+    }
+
+    @Test
+    void unparkedExchangesCountAgainstTheDrainBudget() {
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                new CofferMinecraftFabricExchangeQueue.DrainBudget(1, 1_000),
+                LIMITS,
+                () -> 0L);
+        List<String> handled = new ArrayList<>();
+        queue.offer("alice-1", "alice");
+        queue.offer("bob-1", "bob");
+        queue.drainOrPark(exchange -> false);
+
+        queue.unpark("alice-1-prepared", "alice");
+        assertEquals(1, queue.drain(handled::add));
+
+        assertEquals(List.of("bob-1"), handled);
+        assertEquals(1, queue.statistics().queueDepth());
+    }
+
+    @Test
+    void pollAndRemoveReachExchangesBehindAParkedSubmitter() {
+        CofferMinecraftFabricExchangeQueue<String> queue = new CofferMinecraftFabricExchangeQueue<>(
+                BUDGET,
+                LIMITS,
+                () -> 0L);
+        queue.offer("alice-1", "alice");
+        queue.offer("alice-2", "alice");
+        queue.drainOrPark(exchange -> false);
+
+        assertEquals("alice-2", queue.poll());
+        assertNull(queue.poll());
+        assertEquals(1, queue.statistics().queueDepth());
+
+        queue.unpark("alice-1-prepared", "alice");
+        assertTrue(queue.remove("alice-1-prepared"));
+        assertEquals(0, queue.statistics().queueDepth());
+        assertEquals(0, queue.statistics().parkedSubmitters());
+    }
+}
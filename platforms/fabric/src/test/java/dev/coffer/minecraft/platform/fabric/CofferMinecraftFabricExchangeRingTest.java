@@ -0,0 +1,150 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+
+class CofferMinecraftFabricExchangeRingTest {
+    @Test
+    void capacityRoundsUpToAPowerOfTwoAndRejectsWhenFull() {
+        CofferMinecraftFabricExchangeRing<String> ring = new CofferMinecraftFabricExchangeRing<>(3);
+
+        assertEquals(4, ring.capacity());
+        for (int index = 0; index < 4; index++) {
+            assertTrue(ring.offer("exchange-" + index, "submitter"));
+        }
+        assertFalse(ring.offer("overflow", "submitter"));
+        assertEquals(4, ring.size());
+    }
+
+    @Test
+    void drainHandsOutABoundedBatchInOfferOrderAndFreesTheSlots() {
+        CofferMinecraftFabricExchangeRing<String> ring = new CofferMinecraftFabricExchangeRing<>(4);
+        List<String> drained = new ArrayList<>();
+        ring.offer("first", "submitter");
+        ring.offer("second", "submitter");
+        ring.offer("third", "submitter");
+
+        assertEquals(2, ring.drain((exchange, submitter) -> drained.add(exchange), 2));
+        assertEquals(List.of("first", "second"), drained);
+        assertEquals(1, ring.size());
+
+        assertTrue(ring.offer("fourth", "submitter"));
+        assertTrue(ring.offer("fifth", "submitter"));
+        assertTrue(ring.offer("sixth", "submitter"));
+        assertEquals(4, ring.drain((exchange, submitter) -> drained.add(exchange), Integer.MAX_VALUE));
+        assertEquals(List.of("first", "second", "third", "fourth", "fifth", "sixth"), drained);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void consumerFailureStillReleasesTheSlotsItWasHanded() {
+        CofferMinecraftFabricExchangeRing<String> ring = new CofferMinecraftFabricExchangeRing<>(2);
+        ring.offer("first", "submitter");
+        ring.offer("second", "submitter");
+
+        assertThrows(IllegalStateException.class, () -> ring.drain((exchange, submitter) -> {
+            throw new IllegalStateException(exchange);
+        }, 2));
+
+        assertEquals(1, ring.size());
+        assertTrue(ring.offer("third", "submitter"));
+    }
+
+    @Test
+    void drainStopsAtAClaimedSlotAndAwaitClaimedWaitsForItsProducer() throws InterruptedException {
+        CofferMinecraftFabricExchangeRing<String> ring = new CofferMinecraftFabricExchangeRing<>(4);
+        List<String> drained = new ArrayList<>();
+        long stalled = ring.claim();
+        assertTrue(ring.offer("published", "second"));
+
+        assertEquals(0, ring.drain((exchange, submitter) -> drained.add(exchange), Integer.MAX_VALUE));
+        assertEquals(2, ring.size());
+
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            ring.publish(stalled, "late", "first");
+        });
+        producer.start();
+        ring.awaitClaimed();
+        producer.join();
+        assertEquals(2, ring.drain((exchange, submitter) -> drained.add(submitter + ":" + exchange), Integer.MAX_VALUE));
+
+        assertEquals(List.of("first:late", "second:published"), drained);
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void awaitClaimedStopsWaitingForSlotsAnotherConsumerAlreadyTook() throws InterruptedException {
+        CofferMinecraftFabricExchangeRing<String> ring = new CofferMinecraftFabricExchangeRing<>(2);
+        long stalled = ring.claim();
+        Thread waiter = new Thread(ring::awaitClaimed);
+        waiter.start();
+
+        ring.publish(stalled, "late", "first");
+        assertEquals(1, ring.drain((exchange, submitter) -> {
+        }, Integer.MAX_VALUE));
+        assertTrue(ring.offer("second", "second"));
+        assertTrue(ring.offer("third", "third"));
+        waiter.join(1_000);
+
+        assertFalse(waiter.isAlive());
+    }
+
+    @Test
+    void concurrentProducersArePublishedInPerProducerOrder() throws InterruptedException {
+        int producers = 8;
+        int perProducer = 10_000;
+        CofferMinecraftFabricExchangeRing<int[]> ring = new CofferMinecraftFabricExchangeRing<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int producer = 0; producer < producers; producer++) {
+            int id = producer;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int sequence = 0; sequence < perProducer; sequence++) {
+                    int[] exchange = {id, sequence};
+                    while (!ring.offer(exchange, "producer-" + id)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        int[] nextSequence = new int[producers];
+        int received = 0;
+        start.countDown();
+        while (received < producers * perProducer) {
+            received += ring.drain((exchange, submitter) -> {
+                assertEquals("producer-" + exchange[0], submitter);
+                assertEquals(nextSequence[exchange[0]], exchange[1]);
+                nextSequence[exchange[0]]++;
+            }, 16);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (int producer = 0; producer < producers; producer++) {
+            assertEquals(perProducer, nextSequence[producer]);
+        }
+        assertEquals(0, ring.size());
+    }
+}
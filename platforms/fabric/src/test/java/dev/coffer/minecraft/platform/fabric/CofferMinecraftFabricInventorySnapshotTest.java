@@ -0,0 +1,106 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import dev.coffer.minecraft.bindings.inventory.MinecraftPlayerInventoryContainer;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CofferMinecraftFabricInventorySnapshotTest {
+    @BeforeAll
+    static void bootstrapMinecraftRegistries() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void captureCopiesOnlyTheTouchedRegionsIntoImmutableLists() {
+        PlayerInventory live = inventory();
+        ItemStack stone = live.main.get(0);
+
+        CofferMinecraftFabricInventorySnapshot snapshot = capture(live, MinecraftPlayerInventoryContainer.Region.HOTBAR);
+        stone.decrement(1);
+
+        List<ItemStack> hotbar = snapshot.slots(MinecraftPlayerInventoryContainer.Region.HOTBAR).orElseThrow();
+        assertEquals(PlayerInventory.getHotbarSize(), hotbar.size());
+        assertNotSame(stone, hotbar.get(0));
+        assertEquals(16, hotbar.get(0).getCount());
+        assertSame(ItemStack.EMPTY, hotbar.get(1));
+        assertTrue(snapshot.slots(MinecraftPlayerInventoryContainer.Region.MAIN).isEmpty());
+        assertTrue(snapshot.slots(MinecraftPlayerInventoryContainer.Region.ARMOR).isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> hotbar.set(1, new ItemStack(Items.DIRT)));
+    }
+
+    @Test
+    void snapshotStaysCurrentUntilTheLiveInventoryVersionMoves() {
+        PlayerInventory live = inventory();
+        CofferMinecraftFabricInventorySnapshot snapshot = capture(live, MinecraftPlayerInventoryContainer.Region.HOTBAR);
+
+        assertTrue(snapshot.isCurrent(CofferMinecraftFabricInventorySnapshot.version(live)));
+        assertEquals(CofferMinecraftFabricInventorySnapshot.version(live), snapshot.version());
+
+        live.main.get(0).decrement(1);
+        assertFalse(snapshot.isCurrent(CofferMinecraftFabricInventorySnapshot.version(live)));
+
+        live.main.get(0).increment(1);
+        assertTrue(snapshot.isCurrent(CofferMinecraftFabricInventorySnapshot.version(live)));
+
+        live.offHand.set(0, new ItemStack(Items.DIRT));
+        assertFalse(snapshot.isCurrent(CofferMinecraftFabricInventorySnapshot.version(live)));
+    }
+
+    @Test
+    void changeCounterAloneMovesTheVersion() {
+        PlayerInventory live = inventory();
+        CofferMinecraftFabricInventorySnapshot snapshot = capture(live, MinecraftPlayerInventoryContainer.Region.HOTBAR);
+
+        live.markDirty();
+
+        assertFalse(snapshot.isCurrent(CofferMinecraftFabricInventorySnapshot.version(live)));
+    }
+
+    @Test
+    void captureDeclinesRegionsHoldingMoreStacksThanTheLimit() {
+        PlayerInventory live = inventory();
+        live.main.set(1, new ItemStack(Items.DIRT, 4));
+
+        assertTrue(capture(live, MinecraftPlayerInventoryContainer.Region.HOTBAR, 1).isEmpty());
+        assertTrue(capture(live, MinecraftPlayerInventoryContainer.Region.HOTBAR, 2).isPresent());
+    }
+
+    private static CofferMinecraftFabricInventorySnapshot capture(
+            PlayerInventory live,
+            MinecraftPlayerInventoryContainer.Region region) {
+        return capture(live, region, Integer.MAX_VALUE).orElseThrow();
+    }
+
+    private static Optional<CofferMinecraftFabricInventorySnapshot> capture(
+            PlayerInventory live,
+            MinecraftPlayerInventoryContainer.Region region,
+            int maxStacks) {
+        return CofferMinecraftFabricInventorySnapshot.capture(
+                CofferMinecraftFabricInventorySnapshot.version(live),
+                EnumSet.of(region),
+                ignored -> live.main.subList(0, PlayerInventory.getHotbarSize()),
+                maxStacks);
+    }
+
+    private static PlayerInventory inventory() {
+        PlayerInventory inventory = new PlayerInventory(null);
+        inventory.main.set(0, new ItemStack(Items.STONE, 16));
+        return inventory;
+    }
+}
@@ -0,0 +1,70 @@
+package dev.coffer.minecraft.platform.fabric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.UUID;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.Items;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class CofferMinecraftFabricInventoryVersionsTest {
+    private static final UUID PLAYER_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+
+    @BeforeAll
+    static void bootstrapMinecraftRegistries() {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+    }
+
+    @Test
+    void repeatedLookupsInADrainReuseTheFoldedStamp() {
+        PlayerInventory inventory = inventory();
+        CofferMinecraftFabricInventoryVersions versions = new CofferMinecraftFabricInventoryVersions();
+
+        long first = versions.version(PLAYER_ID, inventory);
+        long second = versions.version(PLAYER_ID, inventory);
+
+        assertEquals(CofferMinecraftFabricInventorySnapshot.version(inventory), first);
+        assertEquals(first, second);
+        assertEquals(new CofferMinecraftFabricInventoryVersions.Statistics(1, 1, 1), versions.statistics());
+    }
+
+    @Test
+    void mutationRefoldsTheStampOnTheNextLookup() {
+        PlayerInventory inventory = inventory();
+        CofferMinecraftFabricInventoryVersions versions = new CofferMinecraftFabricInventoryVersions();
+        long before = versions.version(PLAYER_ID, inventory);
+
+        inventory.main.get(0).decrement(4);
+        versions.mutated(PLAYER_ID);
+        long after = versions.version(PLAYER_ID, inventory);
+
+        assertNotEquals(before, after);
+        assertEquals(CofferMinecraftFabricInventorySnapshot.version(inventory), after);
+        assertEquals(2, versions.statistics().computedVersions());
+    }
+
+    @Test
+    void clearedStampsAreFoldedAgainSoOutsideEditsBetweenDrainsAreSeen() {
+        PlayerInventory inventory = inventory();
+        CofferMinecraftFabricInventoryVersions versions = new CofferMinecraftFabricInventoryVersions();
+        long before = versions.version(PLAYER_ID, inventory);
+        versions.clear();
+
+        inventory.main.get(0).increment(1);
+
+        assertNotEquals(before, versions.version(PLAYER_ID, inventory));
+        assertEquals(0, versions.statistics().reusedVersions());
+    }
+
+    private static PlayerInventory inventory() {
+        PlayerInventory inventory = new PlayerInventory(null);
+        inventory.main.set(0, new ItemStack(Items.STONE, 16));
+        return inventory;
+    }
+}